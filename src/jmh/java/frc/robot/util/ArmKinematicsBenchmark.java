@@ -0,0 +1,127 @@
+package frc.robot.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import frc.robot.Constants.ArmConstants;
+
+/**
+ * Compares the old array-returning kinematics utils with {@link ArmKinematicsSolver} and the lookup table version, plus
+ * the reachability checks from {@link ArmWorkspaceMap}. Targets are random points in the arm's reach, half of them
+ * flipped.
+ */
+@State(Scope.Thread)
+public class ArmKinematicsBenchmark {
+    private static final int INPUT_COUNT = 1024; // power of 2 so the index can wrap with a mask
+
+    private final double[] x = new double[INPUT_COUNT];
+    private final double[] y = new double[INPUT_COUNT];
+    private final double[] z = new double[INPUT_COUNT];
+    private final boolean[] flipped = new boolean[INPUT_COUNT];
+    private final double[] pivot1Deg = new double[INPUT_COUNT];
+    private final double[] pivot2Deg = new double[INPUT_COUNT];
+    private final double[] turretDeg = new double[INPUT_COUNT];
+    private int index;
+
+    private ArmKinematicsSolver solver;
+    private ArmKinematicsSolver lookupTable;
+    private ArmWorkspaceMap workspace;
+    private Path lookupTableFile;
+    private final ArmJointState jointState = new ArmJointState();
+    private final double[] coordinates = new double[3];
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.solver = new ArmKinematicsSolver();
+        this.workspace = new ArmWorkspaceMap(this.solver, ArmConstants.WORKSPACE_VOXEL_SIZE, ArmConstants.WORKSPACE_MAX_SEARCH_VOXELS);
+
+        // Build a fresh table instead of depending on whatever is in src/main/deploy
+        this.lookupTableFile = Files.createTempFile("arm_ik_table", ".bin");
+        ArmKinematicsLookupTable.main(new String[]{this.lookupTableFile.toString()});
+        this.lookupTable = ArmKinematicsLookupTable.load(this.lookupTableFile);
+
+        Random random = new Random(2023);
+        double reach = this.solver.getMaxReach();
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            // Only keep targets that can actually be solved, otherwise we mostly measure the early returns
+            do {
+                this.x[i] = (random.nextDouble() * 2 - 1) * reach;
+                this.y[i] = ArmConstants.ORIGIN_HEIGHT + (random.nextDouble() * 2 - 1) * reach;
+                this.z[i] = (random.nextDouble() * 2 - 1) * reach;
+                this.flipped[i] = random.nextBoolean();
+            } while (!this.solver.solveInverse(this.x[i], this.y[i], this.z[i], this.flipped[i], this.jointState).isOk());
+            this.pivot1Deg[i] = this.jointState.getPivot1Deg();
+            this.pivot2Deg[i] = this.jointState.getPivot2Deg();
+            this.turretDeg[i] = this.jointState.getTurretDeg();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.lookupTableFile);
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (INPUT_COUNT - 1);
+        return this.index;
+    }
+
+    @Benchmark
+    public double[] inverseLegacy() {
+        int i = next();
+        return InverseKinematicsUtil.getAnglesFromCoordinates(this.x[i], this.y[i], this.z[i], this.flipped[i]);
+    }
+
+    @Benchmark
+    public ArmKinematicsSolver.Status inverseSolver() {
+        int i = next();
+        return this.solver.solveInverse(this.x[i], this.y[i], this.z[i], this.flipped[i], this.jointState);
+    }
+
+    @Benchmark
+    public ArmKinematicsSolver.Status inverseLookupTable() {
+        int i = next();
+        return this.lookupTable.solveInverse(this.x[i], this.y[i], this.z[i], this.flipped[i], this.jointState);
+    }
+
+    @Benchmark
+    public double[] forwardLegacy() {
+        int i = next();
+        return ForwardKinematicsUtil.getCoordinatesFromAngles(this.pivot1Deg[i], this.pivot2Deg[i], this.turretDeg[i]);
+    }
+
+    @Benchmark
+    public double[] forwardSolver() {
+        int i = next();
+        this.solver.solveForward(Math.toRadians(this.pivot1Deg[i]), Math.toRadians(this.pivot2Deg[i]), Math.toRadians(this.turretDeg[i]), this.coordinates);
+        return this.coordinates;
+    }
+
+    @Benchmark
+    public ArmKinematicsSolver.Status checkReachable() {
+        int i = next();
+        return this.solver.checkReachable(this.x[i], this.y[i], this.z[i], this.flipped[i]);
+    }
+
+    @Benchmark
+    public boolean workspaceIsReachable() {
+        int i = next();
+        return this.workspace.isReachable(this.x[i], this.y[i], this.z[i], this.flipped[i]);
+    }
+
+    @Benchmark
+    public boolean workspaceProjectOutOfReach() {
+        int i = next();
+        // Push the target 10% further out so it usually has to be projected back
+        return this.workspace.projectToReachable(this.x[i] * 1.1, this.y[i], this.z[i] * 1.1, this.flipped[i], false, this.coordinates);
+    }
+}
@@ -0,0 +1,73 @@
+package frc.robot.util;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-call cost of the {@link MathUtil} helpers. The inputs cycle through a table of random values so the JIT can't
+ * constant fold the math away.
+ */
+@State(Scope.Thread)
+public class MathUtilBenchmark {
+    private static final int INPUT_COUNT = 1024; // power of 2 so the index can wrap with a mask
+
+    private final double[] a = new double[INPUT_COUNT];
+    private final double[] b = new double[INPUT_COUNT];
+    private final double[] c = new double[INPUT_COUNT];
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(2023);
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            // Sides of a valid triangle so the law of cosines doesn't just return NaN
+            this.a[i] = 10 + random.nextDouble() * 20;
+            this.b[i] = 10 + random.nextDouble() * 20;
+            this.c[i] = Math.abs(this.a[i] - this.b[i]) + random.nextDouble() * Math.min(this.a[i], this.b[i]);
+        }
+    }
+
+    private int next() {
+        this.index = (this.index + 1) & (INPUT_COUNT - 1);
+        return this.index;
+    }
+
+    @Benchmark
+    public double distance2d() {
+        int i = next();
+        return MathUtil.distance(this.a[i], this.b[i], this.c[i], this.a[(i + 1) & (INPUT_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public double distance3d() {
+        int i = next();
+        return MathUtil.distance(this.a[i], this.b[i], this.c[i], this.a[(i + 1) & (INPUT_COUNT - 1)], this.b[(i + 1) & (INPUT_COUNT - 1)], this.c[(i + 1) & (INPUT_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public double lawOfCosinesForAngle() {
+        int i = next();
+        return MathUtil.lawOfCosinesForAngle(this.a[i], this.b[i], this.c[i]);
+    }
+
+    @Benchmark
+    public double lawOfSinesForAngle() {
+        int i = next();
+        return MathUtil.lawOfSinesForAngle(this.c[i] * 4, this.a[i], this.b[i]);
+    }
+
+    @Benchmark
+    public double angleBetweenLines() {
+        int i = next();
+        return MathUtil.angleBetweenLines(this.a[i], this.b[i], this.c[i], this.c[i], this.a[i], this.b[i]);
+    }
+
+    @Benchmark
+    public double inchesToMeters() {
+        return MathUtil.inchesToMeters(this.a[next()]);
+    }
+}
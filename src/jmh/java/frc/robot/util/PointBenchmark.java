@@ -0,0 +1,46 @@
+package frc.robot.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of the {@link Point} arithmetic, which boxes every field through a {@link java.util.function.BiFunction}.
+ */
+@State(Scope.Thread)
+public class PointBenchmark {
+    private Point a;
+    private Point b;
+
+    @Setup
+    public void setup() {
+        this.a = new Point(12.5, 40.25, -3.75);
+        this.b = new Point(-7.0, 18.5, 22.125);
+    }
+
+    @Benchmark
+    public Point add() {
+        return this.a.add(this.b);
+    }
+
+    @Benchmark
+    public Point mul() {
+        return this.a.mul(this.b);
+    }
+
+    @Benchmark
+    public Point pow() {
+        return this.a.pow(this.b);
+    }
+
+    @Benchmark
+    public double distanceFromCenter() {
+        return this.a.distanceFromCenter();
+    }
+
+    @Benchmark
+    public double[] getCoordinates() {
+        return this.a.getCoordinates();
+    }
+}
@@ -0,0 +1,65 @@
+package frc.robot.wrappers;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.math.trajectory.TrajectoryUtil;
+
+/**
+ * How long it takes to turn a trajectory off of NetworkTables ({@link TrajectoryReader#parseTrajectory(double[])})
+ * or out of a PathWeaver json into a {@link Trajectory}, for a few path lengths.
+ */
+@State(Scope.Thread)
+public class TrajectoryReaderBenchmark {
+    @Param({"1", "4", "10"})
+    public double pathLengthMeters;
+
+    private double[] flattened;
+    private String json;
+
+    @Setup
+    public void setup() {
+        double length = this.pathLengthMeters;
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                new Pose2d(0, 0, new Rotation2d()),
+                List.of(new Translation2d(length / 3, 1), new Translation2d(length * 2 / 3, -1)),
+                new Pose2d(length, 0, new Rotation2d()),
+                new TrajectoryConfig(3, 2));
+
+        List<Trajectory.State> states = trajectory.getStates();
+        this.flattened = new double[states.size() * 7];
+        for (int i = 0; i < states.size(); i++) {
+            Trajectory.State state = states.get(i);
+            int shift = i * 7;
+            this.flattened[shift + 0] = state.timeSeconds;
+            this.flattened[shift + 1] = state.velocityMetersPerSecond;
+            this.flattened[shift + 2] = state.accelerationMetersPerSecondSq;
+            this.flattened[shift + 3] = state.poseMeters.getX();
+            this.flattened[shift + 4] = state.poseMeters.getY();
+            this.flattened[shift + 5] = state.poseMeters.getRotation().getRadians();
+            this.flattened[shift + 6] = state.curvatureRadPerMeter;
+        }
+        this.json = TrajectoryUtil.serializeTrajectory(trajectory);
+    }
+
+    @Benchmark
+    public Trajectory parseFlattened() {
+        return TrajectoryReader.parseTrajectory(this.flattened);
+    }
+
+    @Benchmark
+    public Trajectory parsePathweaverJson() {
+        return TrajectoryUtil.deserializeTrajectory(this.json);
+    }
+}
@@ -47,6 +47,23 @@ public final class Constants {
 
         public static final double PIVOT_SPEED = 0.1;
         public static final double TURRET_SPEED = 0.1;
+        /**
+         * Ratio between the turret motor and the turret (the 60:1 gearbox). The turret encoder's conversion factor is
+         * 1, so its units are motor rotations.
+         */
+        public static final double TURRET_GEAR_RATIO = 60;
+        /**
+         * Degrees the turret turns per unit of its encoder: 360 / 60 = 6 degrees per motor rotation. Positive means the
+         * camera swings towards positive tx as the encoder counts up. It's negative because the aim PID in
+         * {@link frc.robot.subsystems.staticsubsystems.LimeLight} drives the (not inverted) turret backwards to chase a
+         * positive tx. Used for LimeLight latency compensation. Doesn't include the drive wheel to lazy susan ratio,
+         * measure that and fold it in if it isn't 1:1.
+         */
+        public static final double TURRET_DEGREES_PER_ENCODER_UNIT = -360.0 / TURRET_GEAR_RATIO;
+        /**
+         * How many loops of turret positions to remember for LimeLight latency compensation (50 = 1 second)
+         */
+        public static final int TURRET_HISTORY_SIZE = 50;
 
         public static final double STARTING_X = 0;
         public static final double STARTING_Y = 0;
@@ -65,6 +82,44 @@ public final class Constants {
         public static final double COMPLEMENTING_FLIP_SPEED = 1.2;
         public static final double[] STARTING_COORDS = ForwardKinematicsUtil.getCoordinatesFromAngles(ARM_1_INITIAL_ANGLE, ARM_2_INITIAL_ANGLE, 0);
         public static final double[] FLIP_COORDS_WHEN_FLIPPING = {31.0, 17.0, 0.0};
+
+        /**
+         * Use the precomputed IK lookup table (deploy/arm_ik_table.bin) instead of solving every time. Falls back to solving if the table is missing.
+         */
+        public static final boolean USE_IK_LOOKUP_TABLE = true;
+
+        /**
+         * Side length (in inches) of the voxels in the reachable workspace map.
+         */
+        public static final double WORKSPACE_VOXEL_SIZE = 2.0;
+        /**
+         * How many voxels away an out of reach target can be before we stop trying to pull it back into reach.
+         */
+        public static final int WORKSPACE_MAX_SEARCH_VOXELS = 6;
+
+        /**
+         * Start with the arm's PID running on the SparkMaxes instead of the roboRIO. Can be changed at runtime with arm/useSparkMaxPID in NetworkTables.
+         */
+        public static final boolean USE_SPARKMAX_PID = false;
+        /**
+         * Volts each pivot needs to hold its limb level against gravity, used as the SparkMax PID's feedforward (scaled by
+         * cos of how far the limb is from level). Not characterized yet, measure by finding the voltage that just holds
+         * each limb horizontal.
+         */
+        public static final double PIVOT1_KG_VOLTS = 0; // change to be correct later
+        public static final double PIVOT2_KG_VOLTS = 0; // change to be correct later
+
+        /**
+         * Calibration gives up on a pivot if its limit switch isn't hit within this many seconds.
+         */
+        public static final double CALIBRATION_STAGE_TIMEOUT = 4.0;
+        /**
+         * If a pivot draws more than this many amps while moving slower than CALIBRATION_STALL_VELOCITY (degrees/second)
+         * for CALIBRATION_STALL_TIME seconds, calibration assumes it is against the hard stop and its limit switch failed.
+         */
+        public static final double CALIBRATION_STALL_CURRENT = 20; // change to be correct later
+        public static final double CALIBRATION_STALL_VELOCITY = 2;
+        public static final double CALIBRATION_STALL_TIME = 0.25;
     }
 
     /**
@@ -80,6 +135,32 @@ public final class Constants {
         public static final double ROTATE_MIN_OUTPUT = -0.1;
     }
 
+    /**
+     * Constants for the LimeLight and the game piece target tracker
+     */
+    public static class LimeLightConstants {
+        public static final int CONE_PIPELINE = 1;
+        public static final int CUBE_PIPELINE = 3;
+
+        /**
+         * Loops to wait after the LimeLight says it switched pipelines before trusting its values (60ms)
+         */
+        public static final int PIPELINE_SETTLE_LOOPS = 3;
+        /**
+         * How long autos wait for a pipeline switch before carrying on anyway
+         */
+        public static final double PIPELINE_SWITCH_TIMEOUT_SECONDS = 1.0;
+
+        /**
+         * How long (seconds) the tracker keeps predicting the target after it stops being seen
+         */
+        public static final double TRACK_COAST_SECONDS = 0.25;
+        // Kalman filter noise, all in pixels. Higher measurement noise = smoother but slower to react
+        public static final double TRACK_MEASUREMENT_STD_PIXELS = 4; // change to be correct later
+        public static final double TRACK_ACCELERATION_STD_PIXELS = 1000; // per second squared
+        public static final double TRACK_INITIAL_RATE_STD_PIXELS = 200; // per second
+    }
+
     /**
      * Constants relating to the Drive Station (joysticks)
      */
@@ -154,6 +235,33 @@ public final class Constants {
         public static final DifferentialDriveKinematics DRIVE_KINEMATICS = new DifferentialDriveKinematics(TRACKWIDTH_METERS);
 
         public static final double ENCODER_CONVERSION_FACTOR = 0.0397368; //find out experimentally or some other way
+        /**
+         * Motor rotations per wheel rotation, worked out from the encoder conversion factor (meters per motor rotation).
+         * Only used by the simulator.
+         */
+        public static final double GEARING = 2 * Math.PI * K_WHEEL_RADIUS / ENCODER_CONVERSION_FACTOR;
+
+        /**
+         * How often the odometry thread runs, in seconds (200Hz)
+         */
+        public static final double ODOMETRY_PERIOD_SECONDS = 0.005;
+        /**
+         * Status frame period (ms) for the drive encoders that odometry reads, so it actually gets new values every run
+         */
+        public static final int ODOMETRY_STATUS_FRAME_MS = 5;
+
+        /**
+         * How many odometry poses to remember for lining up late vision measurements (200 = 1 second at 200Hz)
+         */
+        public static final int POSE_HISTORY_SIZE = 200;
+        /**
+         * Whether to fuse the Jetson's AprilTag poses into the pose estimator
+         */
+        public static final boolean USE_VISION_FUSION = true;
+        /**
+         * Vision poses further than this (meters) from where odometry says we were get thrown out
+         */
+        public static final double VISION_MAX_POSE_ERROR_METERS = 1.0; // change to be correct later
 
         public static final double TURN_CONSTANT = 0.02; // was 0.015
         public static final double ANGLE_DELTA = 1;
@@ -168,6 +276,16 @@ public final class Constants {
             // Reasonable baseline values for a RAMSETE follower in units of meters and seconds
             public static final double RAMSETE_B = 2;
             public static final double RAMSETE_ZETA = 0.7;
+
+            // Generated trajectories are cached, poses closer than this get the same trajectory back
+            public static final int CACHE_SIZE = 32;
+            public static final double CACHE_POSITION_TOLERANCE_METERS = 0.01;
+            public static final double CACHE_ANGLE_TOLERANCE_RADIANS = Math.toRadians(0.5);
+
+            // How long AsyncTrajectoryCommand waits for its trajectory before running the fallback
+            public static final double ASYNC_GENERATION_DEADLINE_SECONDS = 0.25;
+            // How many trajectories can be waiting for the worker thread, more than that and the new one fails right away
+            public static final int ASYNC_GENERATION_QUEUE_SIZE = 2;
         }
     }
 
@@ -7,6 +7,9 @@ package frc.robot;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.subsystems.staticsubsystems.LimeLight;
+import frc.robot.util.LoopProfiler;
+import frc.robot.util.RobotEvents;
 
 /**
  * The VM is configured to automatically run this class, and to call the functions corresponding to
@@ -15,6 +18,9 @@ import edu.wpi.first.wpilibj2.command.CommandScheduler;
  * project.
  */
 public class Robot extends TimedRobot {
+    private static final LoopProfiler.Section LIMELIGHT_PROFILE = LoopProfiler.section("LimeLight.update");
+    private static final LoopProfiler.Section SCHEDULER_PROFILE = LoopProfiler.section("scheduler");
+
     public Robot() {
         super();
         //addPeriodic(MPU6050::update, 0.05);
@@ -33,6 +39,12 @@ public class Robot extends TimedRobot {
         // autonomous chooser on the dashboard.
         this.robotContainer = new RobotContainer();
         this.robotContainer.onRobotInit();
+        LoopProfiler.install(CommandScheduler.getInstance());
+        RobotEvents.install(CommandScheduler.getInstance());
+    }
+
+    public RobotContainer getRobotContainer() {
+        return this.robotContainer;
     }
 
     /**
@@ -48,7 +60,17 @@ public class Robot extends TimedRobot {
         // commands, running already-scheduled commands, removing finished or interrupted commands,
         // and running subsystem periodic() methods.  This must be called from the robot's periodic
         // block in order for anything in the Command-based framework to work.
+        RobotEvents.refresh();
+        RobotEvents.beginLoop();
+        LoopProfiler.startLoop();
+        LIMELIGHT_PROFILE.start();
+        LimeLight.update();
+        LIMELIGHT_PROFILE.stop();
+        SCHEDULER_PROFILE.start();
         CommandScheduler.getInstance().run();
+        SCHEDULER_PROFILE.stop();
+        LoopProfiler.endLoop();
+        RobotEvents.endLoop();
         // NetworkTables.getConnections();
         // this.trajectoryReader.periodic();
     }
@@ -3,7 +3,10 @@
 // the WPILib BSD license file in the root directory of this project.
 
 package frc.robot;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import edu.wpi.first.math.geometry.Pose2d;
@@ -40,6 +43,7 @@ import frc.robot.subsystems.staticsubsystems.RobotGyro;
 import frc.robot.wrappers.TrajectoryReader;
 
 import frc.robot.util.CommandGenerator;
+import frc.robot.util.TelemetryRegistry;
 
 /**
  * This class is where the bulk of the robot should be declared. Since Command-based is a
@@ -121,6 +125,7 @@ public class RobotContainer {
     
     private Command m_autonomousCommand;
     private final SendableChooser<Command> m_chooser = new SendableChooser<>();
+    private final Map<String, Command> autoOptions = new LinkedHashMap<>();
 
     /**
      * The container for the robot. Contains subsystems, OI devices, and commands.
@@ -132,6 +137,7 @@ public class RobotContainer {
         // Poke the static classes so their static initializers are run at startup.
         LimeLight.poke();
         RobotGyro.poke();
+        TelemetryRegistry.poke();
     }
 
     /**
@@ -152,7 +158,7 @@ public class RobotContainer {
         // cancelling on release.
         // driverController.b().whileTrue(exampleSubsystem.exampleMethodCommand());
 
-        // driverController.joystick.button(ControllerConstants.RUN_GUI_TRAJECTORY_BUTTON_NUMBER).onTrue(this.driveTrain.generateRamseteCommand(this.trajectoryReader.currentTrajectory));
+        // driverController.joystick.button(ControllerConstants.RUN_GUI_TRAJECTORY_BUTTON_NUMBER).onTrue(this.driveTrain.generateRamseteCommand(this.trajectoryReader.getCurrentTrajectory()));
        
         // armController.joystick.button(ControllerConstants.CLAW_ROTATE_RIGHT_BUTTON_NUMBER).whileTrue(clawRotation.rotateClawRight());
         // armController.joystick.button(ControllerConstants.CLAW_ROTATE_LEFT_BUTTON_NUMBER).whileTrue(clawRotation.rotateClawLeft());
@@ -208,27 +214,40 @@ public class RobotContainer {
                 goTowardsPickupPos2, goTowardsPickupPos6, newGoTowardsTopCenter.get(), driveBackwardsOntoChargeStationDPBlue.get(), driveBackwardsOntoChargeStationDPRed.get(), newBalanceCommand.get(), newAimAssistCommand.get());
 
         // Adds autonomous options to dashboard
+        addAutoOption("Default Auto", defaultAuto);
         m_chooser.setDefaultOption("Default Auto", defaultAuto);
-        m_chooser.addOption("Test Auto", testAuto);
-        m_chooser.addOption("Taxi Auto", taxiAuto);
-        m_chooser.addOption("Taxi for Balance Auto", taxiForBalanceAuto);
-        m_chooser.addOption("Taxi then Balance Auto", taxiThenBalanceAuto);
-        m_chooser.addOption("Place Cube then Taxi Auto", placeCubeThenTaxiAuto);
-        m_chooser.addOption("Place Cube then Taxi then Balance Auto", placeCubeThenTaxiThenBalanceAuto);
-        m_chooser.addOption("Place Cube then Cone Auto", placeCubeThenConeAuto);
+        addAutoOption("Test Auto", testAuto);
+        addAutoOption("Taxi Auto", taxiAuto);
+        addAutoOption("Taxi for Balance Auto", taxiForBalanceAuto);
+        addAutoOption("Taxi then Balance Auto", taxiThenBalanceAuto);
+        addAutoOption("Place Cube then Taxi Auto", placeCubeThenTaxiAuto);
+        addAutoOption("Place Cube then Taxi then Balance Auto", placeCubeThenTaxiThenBalanceAuto);
+        addAutoOption("Place Cube then Cone Auto", placeCubeThenConeAuto);
 
         // These autons use Pathweaver, not using right now
-        m_chooser.addOption("Move one meter test", moveOneMeter.get());
-        m_chooser.addOption("Double placement blue test", driveForwardsToGridBlue.get().andThen(driveBackwardsToConeBlue.get()));
-        m_chooser.addOption("Balance Charge Station Auto", balanceChargeStationAuto);
-        m_chooser.addOption("Place Cone Auto", placeConeCommandAuto);
-        m_chooser.addOption("Double Placement Auto", doublePlacementAuto);
-        m_chooser.addOption("Place Cone Then Balance Auto", placeConeThenBalanceAuto);
-        m_chooser.addOption("Double Placement Then Balance Auto", doublePlacementThenBalanceAuto);
+        addAutoOption("Move one meter test", moveOneMeter.get());
+        addAutoOption("Double placement blue test", driveForwardsToGridBlue.get().andThen(driveBackwardsToConeBlue.get()));
+        addAutoOption("Balance Charge Station Auto", balanceChargeStationAuto);
+        addAutoOption("Place Cone Auto", placeConeCommandAuto);
+        addAutoOption("Double Placement Auto", doublePlacementAuto);
+        addAutoOption("Place Cone Then Balance Auto", placeConeThenBalanceAuto);
+        addAutoOption("Double Placement Then Balance Auto", doublePlacementThenBalanceAuto);
 
         SmartDashboard.putData("Auto choices", m_chooser);
 }
 
+    private void addAutoOption(String name, Command command) {
+        m_chooser.addOption(name, command);
+        autoOptions.put(name, command);
+    }
+
+    /**
+     * @return Every auto in the chooser by name, in the order they were added. Used by the auto simulation harness.
+     */
+    public Map<String, Command> getAutoOptions() {
+        return Collections.unmodifiableMap(autoOptions);
+    }
+
     public void onAutonInit() {
         inTeleop = false;
 
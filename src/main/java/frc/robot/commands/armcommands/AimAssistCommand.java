@@ -3,6 +3,7 @@ package frc.robot.commands.armcommands;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.ArmSubsystem;
 import frc.robot.subsystems.staticsubsystems.LimeLight;
+import frc.robot.util.RobotLogger;
 
 /**
  * This is here for implementation in Autonomous mode, for teleop there is already an implementation in ArmControlCommand
@@ -14,6 +15,7 @@ public class AimAssistCommand extends CommandBase{
     //private static final double X_SPEED = 0.8;
     //private static final double Y_SPEED = 0.8;
     private static final double TURRET_SPEED = 1;
+    private static final RobotLogger.Channel LOG = RobotLogger.channel(0.25);
     
     public AimAssistCommand(ArmSubsystem arm) {
         this.arm = arm;
@@ -30,13 +32,13 @@ public class AimAssistCommand extends CommandBase{
     public void execute() {
         if(!this.arm.getFlipped()){
             arm.setControlDimensions(false);
-            double[] adjustments = LimeLight.getAdjustmentFromError(this.arm.getFlipped());
+            double[] adjustments = LimeLight.getAdjustmentFromError(this.arm);
             // arm.moveVector(adjustments[0] * X_SPEED, adjustments[1] * Y_SPEED, 0);
             this.arm.setTurretSpeed(adjustments[2]);  
-            System.out.println(LimeLight.getXAdjustment() * TURRET_SPEED); 
+            LOG.log("Aim assist turret adjustment: {}", adjustments[2] * TURRET_SPEED);
         }
         else{
-            System.out.println("yo mama");
+            LOG.log("Aim assist skipped, arm is flipped");
         }
     }
 
@@ -48,6 +50,7 @@ public class AimAssistCommand extends CommandBase{
     // Returns true when the command should end.
     @Override
     public boolean isFinished() {
-        return Math.abs(LimeLight.getXAdjustment()) < 0.05; // Might require tuning
+        // Don't call it aimed just because nothing is in view
+        return LimeLight.hasTrack() && Math.abs(LimeLight.getXAdjustment(this.arm)) < 0.05; // Might require tuning
     }
 }
@@ -2,12 +2,12 @@ package frc.robot.commands.armcommands;
 
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.LimeLightConstants;
 import frc.robot.Constants.OperatorConstants.ControllerConstants;
 import frc.robot.controllers.XboxController;
 import frc.robot.subsystems.ArmSubsystem;
 import frc.robot.subsystems.ClawGripSubsystem;
 import frc.robot.subsystems.staticsubsystems.LimeLight;
-import frc.robot.util.NetworkTablesUtil;
 
 /**
  * Moves arm on the turret
@@ -73,16 +73,16 @@ public class ArmControlCommand extends CommandBase {
     private void armAimAssist(){
         boolean rightTrigger = this.joystick.controller.getRightTriggerAxis() > 0.2, leftTrigger = this.joystick.controller.getLeftTriggerAxis() > 0.2;
         if(rightTrigger && leftTrigger) {
-            NetworkTablesUtil.setLimelightPipeline(4);
+            LimeLight.setPipeline(4);
         } else if(rightTrigger) { // cone PID, if > 0.9 do rotation as well but we don't do that here (look in ClawRotateCommand)
-            NetworkTablesUtil.setLimelightPipeline(1);
+            LimeLight.setPipeline(LimeLightConstants.CONE_PIPELINE);
         } else if(leftTrigger) { // just cube PID
-            NetworkTablesUtil.setLimelightPipeline(3);
+            LimeLight.setPipeline(LimeLightConstants.CUBE_PIPELINE);
         }
         if(rightTrigger || leftTrigger) {
             if(!this.arm.getFlipped()){
                 arm.setControlDimensions(false);
-                double[] adjustments = LimeLight.getAdjustmentFromError(this.arm.getFlipped());
+                double[] adjustments = LimeLight.getAdjustmentFromError(this.arm);
                 //arm.moveVector(adjustments[0] * X_SPEED, adjustments[1] * Y_SPEED, 0);
                 turret_adjust = adjustments[2];
             } else {
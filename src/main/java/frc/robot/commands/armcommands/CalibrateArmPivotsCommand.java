@@ -1,9 +1,25 @@
 package frc.robot.commands.armcommands;
 
+import frc.robot.Constants.ArmConstants;
 import frc.robot.controllers.XboxController;
+import frc.robot.subsystems.ArmStateSnapshot;
 import frc.robot.subsystems.ArmSubsystem;
+import frc.robot.util.RobotLogger;
+import frc.robot.util.TelemetryRegistry;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 
+/**
+ * Drives pivot 2 and then pivot 1 back until their limit switches close, then resets the arm's coordinates. Runs one
+ * step per loop so the rest of the robot keeps running while it calibrates.
+ * <p>
+ * Each pivot gets {@link ArmConstants#CALIBRATION_STAGE_TIMEOUT} seconds. If a pivot stalls (high current, no movement)
+ * before its switch closes, we assume it's sitting on the hard stop and the switch is broken, and count it as homed.
+ * How long calibration took and how it ended get published to arm/calibrationDurationSeconds and
+ * arm/calibrationResult. PID only gets turned back on if calibration succeeded, if it timed out or got interrupted the
+ * arm stays in manual control and the failure gets logged.
+ */
 public class CalibrateArmPivotsCommand extends CommandBase {
     private static final double INIT_SPEED = -0.2;
     private static final double BOOST = -0.2;
@@ -14,10 +30,15 @@ public class CalibrateArmPivotsCommand extends CommandBase {
     private static enum CalibrationStates {
         CALIB_PIVOT_2,
         CALIB_PIVOT_1,
-        FINISH
+        FINISH,
+        TIMED_OUT
     }
 
     private CalibrationStates calibrationState;
+    private final Timer totalTimer = new Timer();
+    private final Timer stageTimer = new Timer();
+    private final Timer stallTimer = new Timer();
+    private boolean stallDetected;
 
     public CalibrateArmPivotsCommand(ArmSubsystem arm, XboxController controller) {
         this.arm = arm;
@@ -26,6 +47,13 @@ public class CalibrateArmPivotsCommand extends CommandBase {
         addRequirements(arm);
     }
 
+    /**
+     * Calibrates without the boost button, for use outside of teleop.
+     */
+    public CalibrateArmPivotsCommand(ArmSubsystem arm) {
+        this(arm, null);
+    }
+
     // Called when the command is initially scheduled.
     @Override
     public void initialize() {
@@ -33,6 +61,11 @@ public class CalibrateArmPivotsCommand extends CommandBase {
         this.calibrationState = CalibrationStates.CALIB_PIVOT_2;
         this.arm.setPivot1Speed(0);
         this.arm.setPivot2Speed(0);
+        this.stallDetected = false;
+        this.totalTimer.restart();
+        this.stageTimer.restart();
+        this.stallTimer.restart();
+        TelemetryRegistry.ARM_CALIBRATION_RESULT.set("RUNNING");
     }
 
     // Called every time the scheduler runs while the command is scheduled.
@@ -40,46 +73,105 @@ public class CalibrateArmPivotsCommand extends CommandBase {
     public void execute() {
         this.arm.setPIDControlState(false);
         double speed = INIT_SPEED;
-        if(this.controller.getRawButtonWrapper(4)) {
+        if(this.controller != null && this.controller.getRawButtonWrapper(4)) {
             speed += BOOST;
         }
+        ArmStateSnapshot state = this.arm.getSnapshot();
         switch(this.calibrationState) {
             case CALIB_PIVOT_2:
-                if(!this.arm.getPivot2LimitPressed()) {
-                    this.arm.setPivot2Speed(speed);
-                } else {
+                if(state.isPivot2LimitPressed() || isStalled(state.getPivot2Current(), state.getPivot2Velocity())) {
                     this.arm.setPivot2Speed(0);
                     this.calibrationState = CalibrationStates.CALIB_PIVOT_1;
+                    this.stageTimer.restart();
+                    this.stallTimer.restart();
+                } else if(isStageTimedOut()) {
+                    this.arm.setPivot2Speed(0);
+                    this.calibrationState = CalibrationStates.TIMED_OUT;
+                } else {
+                    this.arm.setPivot2Speed(speed);
                 }
                 break;
             case CALIB_PIVOT_1:
-                if(!this.arm.getPivot1LimitPressed()) {
-                    this.arm.setPivot1Speed(speed);
-                } else {
+                if(state.isPivot1LimitPressed() || isStalled(state.getPivot1Current(), state.getPivot1Velocity())) {
                     this.arm.setPivot1Speed(0);
                     this.calibrationState = CalibrationStates.FINISH;
+                } else if(isStageTimedOut()) {
+                    this.arm.setPivot1Speed(0);
+                    this.calibrationState = CalibrationStates.TIMED_OUT;
+                } else {
+                    this.arm.setPivot1Speed(speed);
                 }
                 break;
             case FINISH:
+            case TIMED_OUT:
                 this.arm.setPivot1Speed(0);
                 this.arm.setPivot2Speed(0);
                 break;
         }
     }
 
+    private boolean isStageTimedOut() {
+        return this.stageTimer.hasElapsed(ArmConstants.CALIBRATION_STAGE_TIMEOUT);
+    }
+
+    /**
+     * Backup for a limit switch that never closes: the pivot is pushing hard but not moving, so it's on the hard stop.
+     * Has to stay that way for {@link ArmConstants#CALIBRATION_STALL_TIME} so the current spike from starting to move
+     * doesn't count.
+     */
+    private boolean isStalled(double current, double velocity) {
+        if (current < ArmConstants.CALIBRATION_STALL_CURRENT || Math.abs(velocity) > ArmConstants.CALIBRATION_STALL_VELOCITY) {
+            this.stallTimer.restart();
+            return false;
+        }
+        if (this.stallTimer.hasElapsed(ArmConstants.CALIBRATION_STALL_TIME)) {
+            this.stallDetected = true;
+            return true;
+        }
+        return false;
+    }
+
     // Called once the command ends or is interrupted.
     @Override
     public void end(boolean interrupted) {
-        this.arm.resetCoords();
-        this.arm.setPIDControlState(true);
         this.arm.setPivot1Speed(0);
         this.arm.setPivot2Speed(0);
+
+        String result;
+        if (interrupted) {
+            result = "INTERRUPTED";
+        } else if (this.calibrationState == CalibrationStates.TIMED_OUT) {
+            result = "TIMED_OUT";
+        } else {
+            result = this.stallDetected ? "STALL_DETECTED" : "LIMIT_SWITCHES";
+            if (this.stallDetected) {
+                DriverStation.reportWarning("Arm calibration stalled before a limit switch closed, check the switches", false);
+            }
+        }
+
+        if (interrupted || this.calibrationState == CalibrationStates.TIMED_OUT) {
+            // We don't know where the arm is, so leave PID off rather than have it chase coordinates that are wrong
+            RobotLogger.log(interrupted
+                    ? "Arm calibration interrupted after {}s, coordinates not reset and PID left off"
+                    : "Arm calibration timed out after {}s, coordinates not reset and PID left off", this.totalTimer.get());
+        } else {
+            // Made it back to the switches, so the coordinates are right again and PID can hold the arm where it is
+            this.arm.resetCoords();
+            this.arm.setPIDControlState(true);
+        }
+
+        TelemetryRegistry.ARM_CALIBRATION_DURATION.set(this.totalTimer.get());
+        TelemetryRegistry.ARM_CALIBRATION_RESULT.set(result);
     }
 
     // Returns true when the command should end.
     @Override
     public boolean isFinished() {
-        return this.calibrationState == CalibrationStates.FINISH || (this.arm.getPivot1LimitPressed() && this.arm.getPivot2LimitPressed());
+        if (this.calibrationState == CalibrationStates.FINISH || this.calibrationState == CalibrationStates.TIMED_OUT) {
+            return true;
+        }
+        ArmStateSnapshot state = this.arm.getSnapshot();
+        return state.isPivot1LimitPressed() && state.isPivot2LimitPressed();
     }
 
 }
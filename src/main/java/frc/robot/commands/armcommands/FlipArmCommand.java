@@ -2,8 +2,11 @@ package frc.robot.commands.armcommands;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.ArmSubsystem;
 import frc.robot.Constants.ArmConstants;
+import frc.robot.util.RobotLogger;
 
 public class FlipArmCommand extends CommandBase {
+    private static final RobotLogger.Channel MOVING_LOG = RobotLogger.channel(0.5);
+
     private final ArmSubsystem arm;
     private boolean flipped = true;
 
@@ -31,20 +34,20 @@ public class FlipArmCommand extends CommandBase {
 
     @Override
     public void execute() {
-        System.out.println("Arm is moving to position");
+        MOVING_LOG.log("Arm is moving to position");
         if(flipped && arm.isAtCoords()){
-            System.out.println("Arm is now FLIPPED!");
+            RobotLogger.log("Arm is now FLIPPED!");
             end = true;
         }
         if(!canBeginFlip && !flipped && arm.isAtCoords()){ // waits for arm to move up 10 before flipping back upright
-             System.out.println("Arm has moved up 20 inches");
+             RobotLogger.log("Arm has moved up 20 inches");
              canBeginFlip = true;
              arm.setArm1SpeedMultiplier(ArmConstants.SPEED_DEC_ON_UNFLIP); // set speed multipliers
              arm.setArm2SpeedMultiplier(ArmConstants.COMPLEMENTING_FLIP_SPEED);
              arm.setTargetCoordinates(ArmConstants.STARTING_COORDS[0], ArmConstants.STARTING_COORDS[1], 0);
         }
         if(canBeginFlip && arm.isAtCoords()){
-            System.out.println("Arm is now at starting config");
+            RobotLogger.log("Arm is now at starting config");
             end = true;
         }
     }
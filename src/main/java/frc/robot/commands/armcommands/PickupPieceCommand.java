@@ -47,11 +47,12 @@ public class PickupPieceCommand extends CommandBase{
     public void execute() {
         switch(currentState){ //use limelight and ultrasonic sensor to move to cone or cube
             case AIM:
-                double[] adjustments = LimeLight.getAdjustmentFromError(this.arm.getFlipped()); 
+                double[] adjustments = LimeLight.getAdjustmentFromError(this.arm); 
                 this.arm.moveVector(adjustments[0] * X_SPEED, 0, 0);
                 this.arm.setTurretSpeed(TURRET_SPEED * adjustments[2]); 
 
-                if(adjustments[0] + adjustments[1] + adjustments[2] < 5){
+                // The aim adjustments are 0 without a track, so only grab once we've actually seen the piece
+                if(LimeLight.hasTrack() && adjustments[0] + adjustments[1] + adjustments[2] < 5){
                     this.currentState = states.CLOSE_CLAW;
                     timer.reset();
                 }
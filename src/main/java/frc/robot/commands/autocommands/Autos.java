@@ -10,16 +10,20 @@ import edu.wpi.first.wpilibj2.command.Commands;
 //import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj.Timer;
 
+import frc.robot.Constants.LimeLightConstants;
 import frc.robot.commands.armcommands.GoTowardsCoordinatesCommandAuto;
 import frc.robot.subsystems.ArmSubsystem;
 import frc.robot.subsystems.ClawGripSubsystem;
 import frc.robot.subsystems.DriveTrainSubsystem;
+import frc.robot.subsystems.staticsubsystems.LimeLight;
 import frc.robot.subsystems.staticsubsystems.RobotGyro;
 import frc.robot.util.NetworkTablesUtil;
+import frc.robot.util.RobotLogger;
 
 public final class Autos {
     private static boolean blueTeam = NetworkTablesUtil.getIfOnBlueTeam(); // Whether we are on the blue team or not
     private static Timer timer = new Timer();
+    private static final RobotLogger.Channel WAIT_LOG = RobotLogger.channel(0.25);
     /**
      * Example static factory for an autonomous command.
      */
@@ -32,21 +36,21 @@ public final class Autos {
             // Autonomous scenario code
             int i = 0;
             while (i < 100) {
-                System.out.println("Auton running1");
+                RobotLogger.log("Auton running1");
                 i++;
             }
         }).alongWith(Commands.runOnce(() -> {
             // Autonomous scenario code
             int i = 100;
             while (i > 0) {
-                System.out.println("Auton running2");
+                RobotLogger.log("Auton running2");
                 i--;
             }
         })).andThen(Commands.runOnce(() -> {
             // Autonomous scenario code
             int i = 100;
             while (i > 0) {
-                System.out.println("Auton running3");
+                RobotLogger.log("Auton running3");
                 i--;
             }
         })) /* susbsystems that are used inside the curly braces above must be passed in here */;
@@ -60,7 +64,7 @@ public final class Autos {
     public static CommandBase defaultAuto() {
         // Example command case
         return Commands.runOnce(() -> {
-            System.out.println("Default Auto Running");
+            RobotLogger.log("Default Auto Running");
             // Autonomous scenario code
         });
 
@@ -70,15 +74,15 @@ public final class Autos {
     // Robot drives backwards
     public static CommandBase taxiAuto(DriveTrainSubsystem driveTrain) {
         return Commands.runOnce(() -> {
-            System.out.println("Taxi Auto Start");
+            RobotLogger.log("Taxi Auto Start");
         }).andThen(resetTimerCommand())
         .andThen(Commands.run(() -> {      
             if (timer.get() < 6) {
-                System.out.println("Slow Drive");
+                RobotLogger.log("Slow Drive");
                 driveTrain.tankDrive(-0.25, 0); // Drives backwards slowly to edge of charge station for 1.15 seconds
             } else {
                 driveTrain.tankDrive(0, 0);
-                System.out.println("Taxi Auto Finish");          
+                RobotLogger.log("Taxi Auto Finish");          
             }
         }, driveTrain));
     }
@@ -86,21 +90,21 @@ public final class Autos {
     // Robot drives backwards then forwards onto charge station
     public static CommandBase taxiForBalanceAuto(DriveTrainSubsystem driveTrain) {
         return Commands.runOnce(() -> {
-            System.out.println("Taxi For Balance Auto Start");
+            RobotLogger.log("Taxi For Balance Auto Start");
         }).andThen(resetTimerCommand())
         .andThen(Commands.run(() -> {      
             if (timer.get() < 1.15) {
-                System.out.println("Slow Drive Backwards");
+                RobotLogger.log("Slow Drive Backwards");
                 driveTrain.tankDrive(-0.25, 0); // Drives backwards slowly to edge of charge station for 1.15 seconds
             } else if (timer.get() < 3.45) {
-                System.out.println("Fast Drive Backwards");
+                RobotLogger.log("Fast Drive Backwards");
                 driveTrain.tankDrive(-0.5, 0); // Drives backwards faster over charge station for 2.5 seconds
             } else if (timer.get() < 4.90) {
-                System.out.println("Fast Drive Forwards");
+                RobotLogger.log("Fast Drive Forwards");
                 driveTrain.tankDrive(0.5, 0); // Drives forwards onto charge station for 1.5 seconds
             } else {
                 driveTrain.tankDrive(0, 0);
-                System.out.println("Taxi For Balance Auto Finish");          
+                RobotLogger.log("Taxi For Balance Auto Finish");          
             }
         }, driveTrain));
     }
@@ -110,7 +114,7 @@ public final class Autos {
     public static CommandBase dynamicTaxiForBalanceAuto(DriveTrainSubsystem driveTrain) {
         // TODO make sure pitch isn't broken
         return Commands.runOnce(() -> {
-            System.out.println("Dynamic Taxi For Balance Auto Start ");
+            RobotLogger.log("Dynamic Taxi For Balance Auto Start ");
             RobotGyro.resetGyroAngle();
         }).andThen(resetTimerCommand())
         .andThen(Commands.run(() -> {// Drive until the robot is on the far edge of the charge station
@@ -144,12 +148,12 @@ public final class Autos {
     // Places cube on top center platform
     public static CommandBase placeGamePieceAuto(ClawGripSubsystem claw, Command goToTopCenter, Command goToStartingPos) {
         return Commands.runOnce(() -> { // Closes the claw around pre-loaded cube
-            System.out.println("Place Cube Auto Start");
+            RobotLogger.log("Place Cube Auto Start");
             claw.setClawOpened(false); // Closes claw
         }, claw).andThen(goToTopCenter) // Moves arm to top center position on grid to place cube
         .andThen(waitCommand(0.2)) // Waits 0.5 seconds
         .andThen(Commands.runOnce(() -> { // Opens claw to drop pre-loaded cube onto top center platform
-            System.out.println("Place Cube Auto Running");
+            RobotLogger.log("Place Cube Auto Running");
             claw.setClawOpened(true); // Opens claw
         }, claw))
         .andThen(waitCommand(0.2)) // Waits 0.5 seconds
@@ -159,7 +163,7 @@ public final class Autos {
     // Runs taxi for balance then balances charge station
     public static CommandBase taxiThenBalanceAuto(DriveTrainSubsystem driveTrain, Command balanceCommand) {
         return Commands.runOnce(() -> {
-            System.out.println("Taxi Auto then Balance Start");
+            RobotLogger.log("Taxi Auto then Balance Start");
         }).andThen(taxiForBalanceAuto(driveTrain).until(() -> timer.get() > 5))
         .andThen(balanceCommand);
     }
@@ -182,14 +186,12 @@ public final class Autos {
             driveTrain.tankDrive(0, 0);
         }, driveTrain))
         .alongWith(goToAbovePickUpPosition)) // Goes to 10 inches above pickup position
-        .andThen(Commands.runOnce(() -> {
-            NetworkTablesUtil.setLimelightPipeline(1); // Changes pipeline to detect cones
-        }))
+        .andThen(LimeLight.switchPipelineCommand(LimeLightConstants.CONE_PIPELINE)) // Changes pipeline to detect cones, waits for it to switch
         .andThen(aimAssist) // Guides claw to game piece
         .andThen(goToPickupPosition) // Goes to pickup position
         .andThen(waitCommand(0.5)) // Waits 0.5 seconds
         .andThen(Commands.runOnce(() -> { // Closes claw around game piece
-            System.out.println("Place Cube then Cone Auto Running");
+            RobotLogger.log("Place Cube then Cone Auto Running");
             claw.setClawOpened(false); // Closes claw
         }, claw))
         .andThen(waitCommand(0.5)) // Waits 0.5 seconds
@@ -204,7 +206,7 @@ public final class Autos {
         .andThen(goTowardsTopRight) // Arm goes to top right pole to place cone
         .andThen(waitCommand(0.5)) // Waits 0.5 seconds 
         .andThen(Commands.runOnce(() -> { // Opens claw to drop cone onto pole
-            System.out.println("Place Cube then Cone Auto Running");
+            RobotLogger.log("Place Cube then Cone Auto Running");
             claw.setClawOpened(true); // Opens claw
         }, claw))
         .andThen(waitCommand(0.5)) // Waits 0.5 seconds
@@ -215,7 +217,7 @@ public final class Autos {
     public static CommandBase waitCommand(double seconds) {
         return resetTimerCommand()
         .andThen(Commands.run(() -> {
-            System.out.println("Waiting for " + seconds + " seconds | " + timer.get());
+            WAIT_LOG.log("Waiting for {} seconds | {}", seconds, timer.get());
         }).until(() -> timer.get() > seconds));
     }
 
@@ -245,12 +247,12 @@ public final class Autos {
         if (blueTeam) {
             return Commands.runOnce(() -> {
                     // Any neccessary calibration code
-                    System.out.println("Balance Auto Blue Start");
+                    RobotLogger.log("Balance Auto Blue Start");
             })/*.alongWith(arm.calibrateArm())*/
             .andThen(driveForwardOverChargeStationBlueCommand); // Drives forward over charge station
         } else {
             return Commands.runOnce(() -> {
-                System.out.println("Balance Auto Red Start"); 
+                RobotLogger.log("Balance Auto Red Start"); 
                 // Any neccessary calibration code
             })/*.alongWith(arm.calibrateArm())*/
             .andThen(driveForwardOverChargeStationRedCommand); // Drives forward over charge station
@@ -265,13 +267,13 @@ public final class Autos {
             return driveBackwardsOntoChargeStationBlueCommand
             .andThen(balanceChargeStation // Balances charge station (Runs until the end of autonomous)
             .alongWith(Commands.runOnce(() -> {
-                System.out.println("Balance Auto Blue Finish");
+                RobotLogger.log("Balance Auto Blue Finish");
             })));
         } else {
             return driveBackwardsOntoChargeStationRedCommand
             .andThen(balanceChargeStation // Balances charge station (Runs until the end of autonomous)
             .alongWith(Commands.runOnce(() -> {
-                System.out.println("Balance Auto Red Finish");
+                RobotLogger.log("Balance Auto Red Finish");
             })));
         }
     }
@@ -283,11 +285,11 @@ public final class Autos {
 
         blueTeam = NetworkTablesUtil.getIfOnBlueTeam();
         return (Commands.runOnce(() -> {
-            System.out.println("Balance Auto Start");
+            RobotLogger.log("Balance Auto Start");
         }).andThen(balanceAutoFirstHalf(driveForwardOverChargeStationBlueCommand, driveForwardOverChargeStationRedCommand, arm)) // Drive forward over charge station
         .andThen(balanceAutoSecondHalf(driveBackwardsOntoChargeStationBlueCommand, driveBackwardsOntoChargeStationRedCommand, balanceChargeStation) // Drive backwards onto charge station and balance it continuously
         .andThen(Commands.runOnce(() -> {
-            System.out.println("Balance Auto Finish"); // Shouldn't print until auton is over, if at all
+            RobotLogger.log("Balance Auto Finish"); // Shouldn't print until auton is over, if at all
         }))));
     }
 
@@ -298,13 +300,13 @@ public final class Autos {
     public static CommandBase placeConeAuto(ClawGripSubsystem claw, GoTowardsCoordinatesCommandAuto goTowardsTopRight, GoTowardsCoordinatesCommandAuto goTowardsStartingPos) {
         return Commands.runOnce(() -> {
             // Any neccessary calibration code
-            System.out.println("Place Cone Auto Start");
+            RobotLogger.log("Place Cone Auto Start");
         }).andThen(goTowardsTopRight) // Arm goes to top right position on grid
         .andThen(Commands.runOnce(() -> {
             claw.setClawOpened(false); // Opens claw
         }, claw).andThen(goTowardsStartingPos)) // Returns arm to starting position
         .andThen(Commands.runOnce(() -> {
-            System.out.println("Place Cone Auto Finish");
+            RobotLogger.log("Place Cone Auto Finish");
         }));
     }
 
@@ -320,18 +322,16 @@ public final class Autos {
         blueTeam = NetworkTablesUtil.getIfOnBlueTeam();
         if (blueTeam) {
             return Commands.runOnce(() -> {
-                System.out.println("Double Placement Auto Blue Start");
+                RobotLogger.log("Double Placement Auto Blue Start");
             }).andThen(placeGamePieceAuto(claw, goTowardsCubePlacementPos, goTowardsStartingPos)) // Drops pre-loaded cube onto top center platform
             .andThen(driveBackwardsToConeBlue // Drives backwards to cone
             .alongWith(goToAbovePickupPos)) // Goes to 10 inches above pickup position
-            .andThen(Commands.runOnce(() -> {
-                NetworkTablesUtil.setLimelightPipeline(1); // Changes pipeline to detect cones
-            }))
+            .andThen(LimeLight.switchPipelineCommand(LimeLightConstants.CONE_PIPELINE)) // Changes pipeline to detect cones, waits for it to switch
             .andThen(aimAssist) // Guides claw to game piece
             .andThen(goTowardsPickupPos) // Goes to pickup position
             .andThen(waitCommand(0.5)) // Waits 0.5 seconds
             .andThen(Commands.runOnce(() -> { // Closes claw around game piece
-                System.out.println("Double Placement Auto Blue Running");
+                RobotLogger.log("Double Placement Auto Blue Running");
                 claw.setClawOpened(false); // Closes claw
             }, claw))
             .andThen(waitCommand(0.5)) // Waits 0.5 seconds
@@ -339,22 +339,20 @@ public final class Autos {
             .alongWith(driveForwardsToGridBlue)) // Drive forwards to grid
             .andThen(placeGamePieceAuto(claw, goTowardsConePlacementPos, goTowardsStartingPos3)) // Drops cone onto top right pole
             .andThen(Commands.runOnce(() -> {
-                System.out.println("Double Placement Auto Blue Finish");
+                RobotLogger.log("Double Placement Auto Blue Finish");
             }));
         } else {
             return Commands.runOnce(() -> {
-                System.out.println("Double Placement Auto Red Start");
+                RobotLogger.log("Double Placement Auto Red Start");
             }).andThen(placeConeAuto(claw, goTowardsCubePlacementPos, goTowardsStartingPos)) // Drops pre-loaded cone onto top right pole
             .andThen(driveBackwardsToConeRed // Drives backwards to cone
             .alongWith(goToAbovePickupPos)) // Goes to 10 inches above pickup position
-            .andThen(Commands.runOnce(() -> {
-                NetworkTablesUtil.setLimelightPipeline(1); // Changes pipeline to detect cones
-            }))
+            .andThen(LimeLight.switchPipelineCommand(LimeLightConstants.CONE_PIPELINE)) // Changes pipeline to detect cones, waits for it to switch
             .andThen(aimAssist) // Guides claw to game piece
             .andThen(goTowardsPickupPos) // Goes to pickup position
             .andThen(waitCommand(0.5)) // Waits 0.5 seconds
             .andThen(Commands.runOnce(() -> { // Closes claw around game piece
-                System.out.println("Double Placement Auto Red Running");
+                RobotLogger.log("Double Placement Auto Red Running");
                 claw.setClawOpened(false); // Closes claw
             }, claw))
             .andThen(waitCommand(0.5)) // Waits 0.5 seconds
@@ -362,7 +360,7 @@ public final class Autos {
             .alongWith(driveForwardsToGridRed)) // Drive forwards to grid
             .andThen(placeGamePieceAuto(claw, goTowardsConePlacementPos, goTowardsStartingPos3)) // Drops cone onto top left pole
             .andThen(Commands.runOnce(() -> {
-                System.out.println("Double Placement Auto Red Finish");
+                RobotLogger.log("Double Placement Auto Red Finish");
             }));
         }
     }
@@ -375,12 +373,12 @@ public final class Autos {
 
         blueTeam = NetworkTablesUtil.getIfOnBlueTeam();
         return Commands.runOnce(() -> {
-            System.out.println("Place Cone then Balance Auto Start");
+            RobotLogger.log("Place Cone then Balance Auto Start");
         }).andThen(balanceAutoFirstHalf(driveForwardOverChargeStationBlueCommand, driveForwardOverChargeStationRedCommand, arm)) // Drives forward over charge station to grid
         .andThen(placeConeAuto(claw, goTowardsTopRight, goTowardsStartingPos)) // Places pre-loaded cone on top right pole
         .andThen((balanceAutoSecondHalf(driveBackwardsOntoChargeStationBlueCommand, driveBackwardsOntoChargeStationRedCommand, balanceChargeStation)) // Drives backwards onto charge station and balances it continuously
         .andThen(Commands.runOnce(() -> {
-            System.out.println("Place Cone then Balance Auto Finish"); // Shouldn't print until auton is over, if at all
+            RobotLogger.log("Place Cone then Balance Auto Finish"); // Shouldn't print until auton is over, if at all
         })));
     }
 
@@ -393,13 +391,13 @@ public final class Autos {
         
         blueTeam = NetworkTablesUtil.getIfOnBlueTeam();
         return Commands.runOnce(() -> {
-            System.out.println("Double Placement then Balance Auto Start");
+            RobotLogger.log("Double Placement then Balance Auto Start");
         }).andThen(doublePlacementAuto(arm, claw, driveBackwardsToConeBlue, driveForwardsToGridBlue, driveBackwardsToConeRed, driveForwardsToGridRed, goTowardsCubePlacementPos, 
                 goTowardsStartingPos, goTowardsStartingPos2, goTowardsStartingPos3, goTowardsPickupPos, goToAbovePickupPos, goTowardsConePlacementPos, aimAssist)) // Runs double placement command
         .andThen(blueTeam ? driveBackwardsOntoChargeStationDPBlue : driveBackwardsOntoChargeStationDPRed) // Drives backwards onto charge station
         .andThen(balanceCommand) // Balances the charge station continuously
         .andThen(Commands.runOnce(() -> {
-            System.out.println("Double Placement then Balance Auto Finish"); // Shouldn't print until auton is over, if at all
+            RobotLogger.log("Double Placement then Balance Auto Finish"); // Shouldn't print until auton is over, if at all
         }));
     }
 
@@ -0,0 +1,155 @@
+package frc.robot.commands.drivecommands;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.subsystems.DriveTrainSubsystem;
+
+/**
+ * Follows an on the fly trajectory without generating it in the scheduler loop. When scheduled, the trajectory gets
+ * generated on the drivetrain's worker thread (see {@link DriveTrainSubsystem#generateTrajectoryAsync}) and the
+ * drivetrain is held still until it's ready. Then the ramsete command for it runs as normal.
+ * <p>
+ * If generation fails or takes longer than the deadline, the fallback command runs instead (or nothing, if there isn't
+ * one). The fallback runs inside this command, so it can require the drivetrain too, and like any composed command
+ * it can't be scheduled on its own or used in another composition.
+ * <p>
+ * Whenever the trajectory stops being wanted (deadline passed, or this command ended first) the generation gets
+ * cancelled with {@code cancel(true)}: a request still in the worker's queue never runs, and one that's running gets
+ * interrupted and its result thrown away.
+ */
+public class AsyncTrajectoryCommand extends CommandBase {
+    private final DriveTrainSubsystem driveTrain;
+    private final Pose2d start;
+    private final List<Translation2d> waypoints;
+    private final Pose2d end;
+    private final boolean reversed;
+    private final double deadlineSeconds;
+    private final Command fallback;
+
+    private final Timer waitTimer = new Timer();
+    private Future<Trajectory> trajectory;
+    private Command follow;
+
+    /**
+     * @param driveTrain      The drivetrain
+     * @param start           Where the trajectory starts
+     * @param waypoints       Waypoints in between, {@link List#of()} for none
+     * @param end             Where the trajectory ends
+     * @param reversed        Whether to drive it backwards
+     * @param deadlineSeconds How long to wait for the trajectory before giving up and running the fallback
+     * @param fallback        What to run if the trajectory isn't ready in time, can be null
+     */
+    public AsyncTrajectoryCommand(DriveTrainSubsystem driveTrain, Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reversed,
+                                  double deadlineSeconds, Command fallback) {
+        this.driveTrain = driveTrain;
+        this.start = start;
+        this.waypoints = waypoints;
+        this.end = end;
+        this.reversed = reversed;
+        this.deadlineSeconds = deadlineSeconds;
+        this.fallback = fallback;
+        addRequirements(driveTrain);
+        if (fallback != null) {
+            CommandScheduler.getInstance().registerComposedCommands(fallback);
+            addRequirements(fallback.getRequirements().toArray(new Subsystem[0]));
+        }
+    }
+
+    // Called when the command is initially scheduled.
+    @Override
+    public void initialize() {
+        this.follow = null;
+        this.waitTimer.restart();
+        this.trajectory = this.driveTrain.generateTrajectoryAsync(this.start, this.waypoints, this.end, this.reversed);
+    }
+
+    // Called every time the scheduler runs while the command is scheduled.
+    @Override
+    public void execute() {
+        if (this.follow == null) {
+            this.follow = this.pickCommand();
+            if (this.follow == null) {
+                // Still waiting, keep the drivetrain still (and motor safety fed)
+                this.driveTrain.tankDriveVolts(0, 0);
+                return;
+            }
+            this.follow.initialize();
+        }
+        this.follow.execute();
+    }
+
+    /**
+     * @return The command to run now, or null if the trajectory isn't ready and the deadline hasn't passed
+     */
+    private Command pickCommand() {
+        if (this.trajectory.isDone()) {
+            Trajectory generated = this.getGenerated();
+            if (generated != null) {
+                return this.compose(this.driveTrain.generateRamseteCommand(generated));
+            }
+            DriverStation.reportWarning("Trajectory generation failed, running the fallback instead", false);
+            return this.fallbackOrStop();
+        }
+        if (this.waitTimer.hasElapsed(this.deadlineSeconds)) {
+            DriverStation.reportWarning("Trajectory generation took longer than " + this.deadlineSeconds + "s, running the fallback instead", false);
+            this.trajectory.cancel(true);
+            return this.fallbackOrStop();
+        }
+        return null;
+    }
+
+    /**
+     * @return The finished trajectory, or null if generation failed or was cancelled
+     */
+    private Trajectory getGenerated() {
+        try {
+            return this.trajectory.get();
+        } catch (ExecutionException | CancellationException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Command fallbackOrStop() {
+        return this.fallback != null ? this.fallback : this.compose(this.driveTrain.runOnce(() -> this.driveTrain.tankDriveVolts(0, 0)));
+    }
+
+    /**
+     * Marks a command we run ourselves as composed, so nothing else schedules it while it's running inside this one.
+     */
+    private Command compose(Command command) {
+        CommandScheduler.getInstance().registerComposedCommands(command);
+        return command;
+    }
+
+    // Called once the command ends or is interrupted.
+    @Override
+    public void end(boolean interrupted) {
+        if (this.follow != null) {
+            this.follow.end(interrupted);
+        } else {
+            this.trajectory.cancel(true);
+            this.driveTrain.tankDriveVolts(0, 0);
+        }
+    }
+
+    // Returns true when the command should end.
+    @Override
+    public boolean isFinished() {
+        return this.follow != null && this.follow.isFinished();
+    }
+}
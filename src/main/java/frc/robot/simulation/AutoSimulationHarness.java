@@ -0,0 +1,197 @@
+package frc.robot.simulation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Robot;
+import frc.robot.RobotContainer;
+import frc.robot.subsystems.DriveTrainSubsystem;
+import frc.robot.util.AllocationCounter;
+import frc.robot.util.LoopProfiler;
+
+/**
+ * Runs every auto in the chooser in simulation, as fast as the computer can go, and prints how each one went.
+ * <p>
+ * The HAL clock is paused and only moves when we step it, 20ms per loop, so a run is deterministic and doesn't wait on
+ * wall clock time (notifiers like the odometry thread still run, {@link SimHooks#stepTiming} waits for them). Between
+ * autos every command gets cancelled and the drivetrain sim is put back at the origin, but nothing else is reset, so
+ * the arm starts each auto wherever the last one left it.
+ * <p>
+ * For each auto this prints the end pose, how much simulated time it took (or TIMEOUT if it was still running after
+ * the auto period), and how much real time the robot loop took while it ran. Run with {@code ./gradlew simulateAutos}.
+ * Under that it lists every command that ran with its total {@link LoopProfiler} time for the auto, slowest first (the
+ * profiler is reset at the start of each auto), so a slow auto can be pinned on a command.
+ * <p>
+ * If the JVM can count allocations (see {@link AllocationCounter}), it also prints how many bytes the robot loop
+ * allocated per loop once the auto got going (after the first {@value #WARMUP_LOOPS} loops, which include one time
+ * setup like building commands). Garbage made every loop is what causes GC pauses on the roboRIO, so with
+ * {@code -Drobot.allocationBudget=<bytes>} ({@code -PallocationBudget=<bytes>} through gradle) any auto that goes over
+ * the budget counts as a failure and the harness exits with an error.
+ */
+public final class AutoSimulationHarness {
+    private AutoSimulationHarness() {
+        throw new UnsupportedOperationException("AutoSimulationHarness is a utility class and should not be instantiated!");
+    }
+
+    private static final double LOOP_PERIOD_SECONDS = 0.02;
+    private static final double AUTO_LENGTH_SECONDS = 15;
+    private static final int SETTLE_LOOPS = 5;
+    private static final int WARMUP_LOOPS = 50;
+    public static final String ALLOCATION_BUDGET_PROPERTY = "robot.allocationBudget";
+
+    public static void main(String[] args) {
+        if (!HAL.initialize(500, 0)) {
+            throw new IllegalStateException("Failed to initialize the HAL");
+        }
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        setMode(false);
+
+        Robot robot = new Robot();
+        robot.robotInit();
+        robot.simulationInit();
+        RobotContainer container = robot.getRobotContainer();
+        DriveTrainSubsystem driveTrain = container.driveTrain;
+        Runnable robotLoop = () -> runRobotLoop(robot);
+
+        // Let everything finish starting up (trajectory loading, first sensor reads) while disabled
+        for (int i = 0; i < SETTLE_LOOPS; i++) {
+            step(robot);
+        }
+
+        String budgetProperty = System.getProperty(ALLOCATION_BUDGET_PROPERTY);
+        double allocationBudget = budgetProperty != null ? Double.parseDouble(budgetProperty) : Double.POSITIVE_INFINITY;
+        if (!AllocationCounter.isSupported()) {
+            System.out.println("This JVM can't count allocations, allocation columns will be blank");
+        }
+
+        System.out.printf("%-42s %8s %22s %10s %10s %12s%n", "Auto", "Sim (s)", "End pose (m, m, deg)", "Loop (ms)", "Max (ms)", "Alloc (B/loop)");
+        boolean anyFailed = false;
+        for (Map.Entry<String, Command> option : container.getAutoOptions().entrySet()) {
+            try {
+                double bytesPerLoop = runAuto(robot, robotLoop, driveTrain, option.getKey(), option.getValue());
+                if (bytesPerLoop > allocationBudget) {
+                    anyFailed = true;
+                    System.out.printf("%-42s FAILED: allocated %.0f bytes per loop, budget is %.0f%n", option.getKey(), bytesPerLoop, allocationBudget);
+                }
+            } catch (RuntimeException ex) {
+                anyFailed = true;
+                System.out.printf("%-42s FAILED: %s%n", option.getKey(), ex);
+                ex.printStackTrace();
+            }
+        }
+        System.exit(anyFailed ? 1 : 0);
+    }
+
+    /**
+     * @return Average bytes allocated per loop after warmup, NaN if it couldn't be measured
+     */
+    private static double runAuto(Robot robot, Runnable robotLoop, DriveTrainSubsystem driveTrain, String name, Command auto) {
+        CommandScheduler.getInstance().cancelAll();
+        driveTrain.resetSimulation(new Pose2d());
+        setMode(true);
+
+        if (auto == null) {
+            System.out.printf("%-42s (no command)%n", name);
+            setMode(false);
+            return Double.NaN;
+        }
+
+        auto.schedule();
+        LoopProfiler.reset();
+        long totalLoopNanos = 0;
+        long maxLoopNanos = 0;
+        long steadyBytes = 0;
+        int steadyLoops = 0;
+        int loops = 0;
+        boolean finished = false;
+        while (loops * LOOP_PERIOD_SECONDS < AUTO_LENGTH_SECONDS) {
+            advanceClock();
+            long start = System.nanoTime();
+            long loopBytes = AllocationCounter.measure(robotLoop);
+            long loopNanos = System.nanoTime() - start;
+            totalLoopNanos += loopNanos;
+            maxLoopNanos = Math.max(maxLoopNanos, loopNanos);
+            if (loops >= WARMUP_LOOPS) {
+                steadyBytes += loopBytes;
+                steadyLoops++;
+            }
+            loops++;
+            if (!auto.isScheduled()) {
+                finished = true;
+                break;
+            }
+        }
+
+        Pose2d pose = driveTrain.getSimulatedPose();
+        String duration = finished ? String.format("%8.2f", loops * LOOP_PERIOD_SECONDS) : " TIMEOUT";
+        String endPose = String.format("(%.2f, %.2f, %.1f)", pose.getX(), pose.getY(), pose.getRotation().getDegrees());
+        boolean measured = AllocationCounter.isSupported() && steadyLoops > 0;
+        double bytesPerLoop = measured ? (double) steadyBytes / steadyLoops : Double.NaN;
+        String allocation = measured ? String.format("%12.0f", bytesPerLoop) : "";
+        System.out.printf("%-42s %s %22s %10.2f %10.3f %s%n", name, duration, endPose, totalLoopNanos / 1e6, maxLoopNanos / 1e6, allocation);
+        printCommandTimes();
+
+        auto.cancel();
+        setMode(false);
+        step(robot);
+        return bytesPerLoop;
+    }
+
+    /**
+     * Prints the total time and number of runs of every command the profiler saw since it was last reset, slowest
+     * first.
+     */
+    private static void printCommandTimes() {
+        List<Map.Entry<String, LoopProfiler.Section>> ran = new ArrayList<>();
+        for (Map.Entry<String, LoopProfiler.Section> entry : LoopProfiler.getCommandSections().entrySet()) {
+            if (entry.getValue().getTotalCount() > 0) {
+                ran.add(entry);
+            }
+        }
+        ran.sort(Comparator.comparingLong((Map.Entry<String, LoopProfiler.Section> entry) -> entry.getValue().getTotalNanos()).reversed());
+        for (Map.Entry<String, LoopProfiler.Section> entry : ran) {
+            LoopProfiler.Section section = entry.getValue();
+            System.out.printf("    %-38s %10.2f ms total %8d runs%n", entry.getKey(), section.getTotalNanos() / 1e6, section.getTotalCount());
+        }
+    }
+
+    /**
+     * Advances the clock by one loop and runs the robot's periodic code once, like TimedRobot would.
+     */
+    private static void step(Robot robot) {
+        advanceClock();
+        runRobotLoop(robot);
+    }
+
+    private static void advanceClock() {
+        SimHooks.stepTiming(LOOP_PERIOD_SECONDS);
+        DriverStation.refreshData();
+    }
+
+    private static void runRobotLoop(Robot robot) {
+        if (DriverStation.isAutonomousEnabled()) {
+            robot.autonomousPeriodic();
+        } else {
+            robot.disabledPeriodic();
+        }
+        robot.robotPeriodic();
+        robot.simulationPeriodic();
+    }
+
+    private static void setMode(boolean autonomousEnabled) {
+        DriverStationSim.setAutonomous(autonomousEnabled);
+        DriverStationSim.setEnabled(autonomousEnabled);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+    }
+}
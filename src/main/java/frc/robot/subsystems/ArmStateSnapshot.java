@@ -0,0 +1,169 @@
+package frc.robot.subsystems;
+
+/**
+ * Everything the arm's sensors said at one point in time. {@link ArmSubsystem} reads the encoders and limit switches
+ * once at the start of each loop and hands this out, so that every command sees the same state during that loop
+ * (and we don't do a pile of CAN reads for the same values).
+ * <p>
+ * There's only one of these per arm, it gets reused and overwritten every loop (so the arm doesn't make garbage every
+ * loop), so don't hold on to it across loops. Copy out the values you need instead.
+ * <p>
+ * Angles are in DEGREES, velocities in degrees per second, currents in amps and coordinates in inches, same as the rest
+ * of the arm code. The turret is in whatever units its encoder is in (see the conversion factor in {@link ArmSubsystem}).
+ */
+public final class ArmStateSnapshot {
+    private double timestamp;
+
+    private double pivot1Position;
+    private double pivot2Position;
+    private double turretPosition;
+
+    private double pivot1Angle;
+
+    private double pivot1Velocity;
+    private double pivot2Velocity;
+    private double turretVelocity;
+
+    private double pivot1Current;
+    private double pivot2Current;
+    private double turretCurrent;
+
+    private boolean pivot1LimitPressed;
+    private boolean pivot2LimitPressed;
+    private boolean turretLimitPressed;
+
+    private double x;
+    private double y;
+    private double z;
+
+    ArmStateSnapshot() {
+    }
+
+    void set(double timestamp,
+             double pivot1Position, double pivot2Position, double turretPosition, double pivot1Angle,
+             double pivot1Velocity, double pivot2Velocity, double turretVelocity,
+             double pivot1Current, double pivot2Current, double turretCurrent,
+             boolean pivot1LimitPressed, boolean pivot2LimitPressed, boolean turretLimitPressed,
+             double x, double y, double z) {
+        this.timestamp = timestamp;
+        this.pivot1Position = pivot1Position;
+        this.pivot2Position = pivot2Position;
+        this.turretPosition = turretPosition;
+        this.pivot1Angle = pivot1Angle;
+        this.pivot1Velocity = pivot1Velocity;
+        this.pivot2Velocity = pivot2Velocity;
+        this.turretVelocity = turretVelocity;
+        this.pivot1Current = pivot1Current;
+        this.pivot2Current = pivot2Current;
+        this.turretCurrent = turretCurrent;
+        this.pivot1LimitPressed = pivot1LimitPressed;
+        this.pivot2LimitPressed = pivot2LimitPressed;
+        this.turretLimitPressed = turretLimitPressed;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * @return FPGA time (seconds) when the sensors were read
+     */
+    public double getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return The raw pivot 1 encoder position. Use {@link #getPivot1AngleDeg()} for control, it has the flip offset.
+     */
+    public double getPivot1Position() {
+        return this.pivot1Position;
+    }
+
+    public double getPivot2Position() {
+        return this.pivot2Position;
+    }
+
+    public double getTurretPosition() {
+        return this.turretPosition;
+    }
+
+    /**
+     * @return Pivot 1's angle, with the offset for the loose gearbox when the arm is flipped
+     */
+    public double getPivot1AngleDeg() {
+        return this.pivot1Angle;
+    }
+
+    public double getPivot2AngleDeg() {
+        return this.pivot2Position;
+    }
+
+    public double getTurretAngleDeg() {
+        return this.turretPosition;
+    }
+
+    public double getPivot1Velocity() {
+        return this.pivot1Velocity;
+    }
+
+    public double getPivot2Velocity() {
+        return this.pivot2Velocity;
+    }
+
+    public double getTurretVelocity() {
+        return this.turretVelocity;
+    }
+
+    /**
+     * @return Pivot 1 motor's output current in amps
+     */
+    public double getPivot1Current() {
+        return this.pivot1Current;
+    }
+
+    public double getPivot2Current() {
+        return this.pivot2Current;
+    }
+
+    public double getTurretCurrent() {
+        return this.turretCurrent;
+    }
+
+    public boolean isPivot1LimitPressed() {
+        return this.pivot1LimitPressed;
+    }
+
+    public boolean isPivot2LimitPressed() {
+        return this.pivot2LimitPressed;
+    }
+
+    public boolean isTurretLimitPressed() {
+        return this.turretLimitPressed;
+    }
+
+    /**
+     * @return Claw x coordinate, from forward kinematics on the angles
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return Claw y coordinate (height above the ground), from forward kinematics on the angles
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * @return Claw z coordinate, from forward kinematics on the angles
+     */
+    public double getZ() {
+        return this.z;
+    }
+
+    @Override
+    public String toString() {
+        return "ArmStateSnapshot(t: " + this.timestamp + ", angles: [" + this.pivot1Angle + ", " + this.pivot2Position + ", " + this.turretPosition
+                + "], coords: [" + this.x + ", " + this.y + ", " + this.z + "], limits: [" + this.pivot1LimitPressed + ", " + this.pivot2LimitPressed + ", " + this.turretLimitPressed + "])";
+    }
+}
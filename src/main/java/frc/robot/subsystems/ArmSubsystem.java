@@ -1,21 +1,33 @@
 package frc.robot.subsystems;
 
 import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.ControlType;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
 import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.wpilibj.DigitalInput;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandBase;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.Command.InterruptionBehavior;
 import frc.robot.Constants.ArmConstants;
 import frc.robot.Constants.PortConstants;
+import frc.robot.commands.armcommands.CalibrateArmPivotsCommand;
 import frc.robot.commands.armcommands.FlipArmCommand;
-import frc.robot.util.ForwardKinematicsUtil;
-import frc.robot.util.InverseKinematicsUtil;
+import frc.robot.util.ArmJointState;
+import frc.robot.util.ArmKinematicsLookupTable;
+import frc.robot.util.ArmKinematicsSolver;
+import frc.robot.util.ArmWorkspaceMap;
 import frc.robot.util.MathUtil;
+import frc.robot.util.NetworkTablesUtil;
+import frc.robot.util.RobotEvents;
+import frc.robot.util.RobotLogger;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TimestampedDoubleBuffer;
 
 /*
  * Arm axis control scheme:
@@ -34,7 +46,20 @@ import frc.robot.util.MathUtil;
  *
  */
 
-public class ArmSubsystem extends SubsystemBase {
+public class ArmSubsystem extends ProfiledSubsystem {
+    // These can go off every loop, so rate limit them
+    private static final RobotLogger.Channel NAN_LOG = RobotLogger.channel(0.5);
+    private static final RobotLogger.Channel HOTLINE_LOG = RobotLogger.channel(0.5);
+
+    /**
+     * Where the arm's position PID runs.
+     */
+    public enum PidMode {
+        /** WPILib PIDControllers on the roboRIO, run every loop (20ms), sending duty cycles to the motors. */
+        ROBORIO_PID,
+        /** The SparkMaxes' own PID (runs at 1kHz on the controller). We only send the setpoint and the gravity feedforward. */
+        SPARKMAX_PID
+    }
 
     private final CANSparkMax pivot1;
     private final CANSparkMax pivot2;
@@ -49,14 +74,27 @@ public class ArmSubsystem extends SubsystemBase {
     private final DigitalInput turretLimit;
 
     private final PIDController pidController1, pidController2, pidController3;
+    private final SparkMaxPIDController pivot1OnboardPID, pivot2OnboardPID, turretOnboardPID;
+    private PidMode pidMode;
+
+    // For comparing the control modes, see publishControlStats()
+    private double settleStartTime = Double.NaN;
+    private double controlLoopTimeMicros;
+
+    // Reused every loop so the kinematics don't allocate
+    private final ArmKinematicsSolver kinematics;
+    private final ArmWorkspaceMap workspace;
+    private final ArmJointState targetJointState = new ArmJointState();
+    private final double[] kinematicsBuffer = new double[3];
 
     private double targetX;
     private double targetY;
     private double targetZ;
 
-    private double cur_x;
-    private double cur_y;
-    private double cur_z;
+    // Sensor readings for the current loop, see captureSnapshot(). The same object gets overwritten every loop
+    private final ArmStateSnapshot snapshot = new ArmStateSnapshot();
+    // Turret positions from recent loops, for lining up old camera frames with where the turret is now
+    private final TimestampedDoubleBuffer turretHistory = new TimestampedDoubleBuffer(ArmConstants.TURRET_HISTORY_SIZE);
 
     private double targetAngle1;
     private double targetAngle2;
@@ -96,11 +134,22 @@ public class ArmSubsystem extends SubsystemBase {
         this.pivot1Encoder.setPositionConversionFactor(2.7); // 125:1 gearbox
         this.pivot2Encoder.setPositionConversionFactor(3.65); // 125:1 gearbox
         this.turretEncoder.setPositionConversionFactor(1); // 60:1 gearbox with drive wheel to lazy susan ratio
+        // Velocities come back in units per minute, so these make them per second
+        this.pivot1Encoder.setVelocityConversionFactor(2.7 / 60);
+        this.pivot2Encoder.setVelocityConversionFactor(3.65 / 60);
+        this.turretEncoder.setVelocityConversionFactor(1.0 / 60);
         // END
 
         this.pivot1Encoder.setPosition(ArmConstants.ARM_1_INITIAL_ANGLE);
         this.pivot2Encoder.setPosition(ArmConstants.ARM_2_INITIAL_ANGLE);
         this.turretEncoder.setPosition(0);
+
+        // The lookup table is generated at deploy time, see the generateArmLookupTable task in build.gradle
+        this.kinematics = ArmConstants.USE_IK_LOOKUP_TABLE
+                ? ArmKinematicsLookupTable.load(Filesystem.getDeployDirectory().toPath().resolve(ArmKinematicsLookupTable.FILE_NAME))
+                : new ArmKinematicsSolver();
+        this.workspace = new ArmWorkspaceMap(this.kinematics, ArmConstants.WORKSPACE_VOXEL_SIZE, ArmConstants.WORKSPACE_MAX_SEARCH_VOXELS);
+
         // TODO: TUNE
         this.pidController1 = new PIDController(1.6e-2, 0, 0); // nice
         this.pidController1.setTolerance(ArmConstants.PID_TOLERANCE);
@@ -110,6 +159,18 @@ public class ArmSubsystem extends SubsystemBase {
         this.pidController3.setTolerance(ArmConstants.PID_TOLERANCE);
         // END
 
+        // Onboard PID, uses the same gains as above (the encoders are already in degrees, so the units match)
+        this.pivot1OnboardPID = this.pivot1.getPIDController();
+        this.pivot2OnboardPID = this.pivot2.getPIDController();
+        this.turretOnboardPID = this.turret.getPIDController();
+        this.pivot1OnboardPID.setFeedbackDevice(this.pivot1Encoder);
+        this.pivot2OnboardPID.setFeedbackDevice(this.pivot2Encoder);
+        this.turretOnboardPID.setFeedbackDevice(this.turretEncoder);
+        updateOnboardPIDGains();
+
+        TelemetryRegistry.ARM_USE_SPARKMAX_PID.set(ArmConstants.USE_SPARKMAX_PID);
+        setPidMode(ArmConstants.USE_SPARKMAX_PID ? PidMode.SPARKMAX_PID : PidMode.ROBORIO_PID);
+
         // Initialize arm limit switches
         this.arm1Limit = new DigitalInput(PortConstants.PIVOT_1_LIMIT_PORT);
         this.arm2Limit = new DigitalInput(PortConstants.PIVOT_2_LIMIT_PORT);
@@ -121,6 +182,7 @@ public class ArmSubsystem extends SubsystemBase {
         this.targetAngleTurret = 0;
 
         // Get starting coords from the initial angle constants
+        captureSnapshot();
         resetCoords();
     }
 
@@ -142,22 +204,133 @@ public class ArmSubsystem extends SubsystemBase {
         this.targetX = ArmConstants.STARTING_COORDS[0];
         this.targetY = ArmConstants.STARTING_COORDS[1];
         this.targetZ = ArmConstants.STARTING_COORDS[2];
-        this.cur_x = ArmConstants.STARTING_COORDS[0];
-        this.cur_y = ArmConstants.STARTING_COORDS[1];
-        this.cur_z = ArmConstants.STARTING_COORDS[2];
         this.targetAngle1 = ArmConstants.ARM_1_INITIAL_ANGLE;
         this.targetAngle2 = ArmConstants.ARM_2_INITIAL_ANGLE;
         this.pivot1Encoder.setPosition(ArmConstants.ARM_1_INITIAL_ANGLE);
         this.pivot2Encoder.setPosition(ArmConstants.ARM_2_INITIAL_ANGLE);
+        // The encoders won't report the new positions until their next status frame, so don't wait for that
+        rebuildSnapshot(ArmConstants.ARM_1_INITIAL_ANGLE, ArmConstants.ARM_2_INITIAL_ANGLE, this.snapshot.getTurretPosition());
+    }
+
+    /**
+     * Reads every arm sensor once and stores it as this loop's snapshot. Called at the start of {@link #periodic()}.
+     */
+    private void captureSnapshot() {
+        Object canReadEvent = RobotEvents.beginCanRead();
+        fillSnapshot(Timer.getFPGATimestamp(),
+                this.pivot1Encoder.getPosition(), this.pivot2Encoder.getPosition(), this.turretEncoder.getPosition(),
+                this.pivot1Encoder.getVelocity(), this.pivot2Encoder.getVelocity(), this.turretEncoder.getVelocity(),
+                this.pivot1.getOutputCurrent(), this.pivot2.getOutputCurrent(), this.turret.getOutputCurrent(),
+                !this.arm1Limit.get(), !this.arm2Limit.get(), !this.turretLimit.get());
+        RobotEvents.endCanRead(canReadEvent, "ArmSubsystem");
+        this.turretHistory.add(this.snapshot.getTimestamp(), this.snapshot.getTurretPosition());
+    }
+
+    /**
+     * How far the turret has turned since some time in the last {@link ArmConstants#TURRET_HISTORY_SIZE} loops, for
+     * correcting camera measurements that were taken back then.
+     *
+     * @param timestamp FPGA time in seconds
+     * @return Degrees turned since then (see {@link ArmConstants#TURRET_DEGREES_PER_ENCODER_UNIT} for the sign), 0 if
+     * the time is too old or in the future
+     */
+    public double getTurretDegreesSince(double timestamp) {
+        double then = this.turretHistory.sample(timestamp);
+        if (Double.isNaN(then)) {
+            return 0;
+        }
+        return (this.snapshot.getTurretPosition() - then) * ArmConstants.TURRET_DEGREES_PER_ENCODER_UNIT;
+    }
+
+    /**
+     * Replaces the positions in the current snapshot (ex. after we reset an encoder) without reading the sensors again.
+     * Also picks up changes to the flip state.
+     */
+    private void rebuildSnapshot(double pivot1Position, double pivot2Position, double turretPosition) {
+        ArmStateSnapshot old = this.snapshot; // every argument is read before anything gets overwritten
+        fillSnapshot(old.getTimestamp(), pivot1Position, pivot2Position, turretPosition,
+                old.getPivot1Velocity(), old.getPivot2Velocity(), old.getTurretVelocity(),
+                old.getPivot1Current(), old.getPivot2Current(), old.getTurretCurrent(),
+                old.isPivot1LimitPressed(), old.isPivot2LimitPressed(), old.isTurretLimitPressed());
+    }
+
+    private void fillSnapshot(double timestamp, double pivot1Position, double pivot2Position, double turretPosition,
+                              double pivot1Velocity, double pivot2Velocity, double turretVelocity,
+                              double pivot1Current, double pivot2Current, double turretCurrent,
+                              boolean pivot1LimitPressed, boolean pivot2LimitPressed, boolean turretLimitPressed) {
+        double pivot1Angle = pivot1Position;
+        if (this.flipped) { //offset for when arm is flipped because our gearbox is lose for some reason
+            pivot1Angle -= 8;
+        }
+        this.kinematics.solveForward(Math.toRadians(pivot1Angle), Math.toRadians(pivot2Position), Math.toRadians(turretPosition), this.kinematicsBuffer);
+        this.snapshot.set(timestamp, pivot1Position, pivot2Position, turretPosition, pivot1Angle,
+                pivot1Velocity, pivot2Velocity, turretVelocity,
+                pivot1Current, pivot2Current, turretCurrent,
+                pivot1LimitPressed, pivot2LimitPressed, turretLimitPressed,
+                this.kinematicsBuffer[0], this.kinematicsBuffer[1], this.kinematicsBuffer[2]);
+    }
+
+    /**
+     * The arm's sensor readings for this loop. Captured once per loop in {@link #periodic()}, so everything that reads
+     * it during the loop sees the same values. It gets reused and overwritten every loop, so don't hold on to it across
+     * loops.
+     */
+    public ArmStateSnapshot getSnapshot() {
+        return this.snapshot;
     }
 
     public void setMaxAndMinOutput1(double speed) {
         this.minOutput = -speed;
         this.maxOutput = speed;
+        updateOnboardPIDGains();
     }
     public void setMaxAndMinOutput2(double speed){
         this.minOutput2 = -speed;
         this.maxOutput2 = speed;
+        updateOnboardPIDGains();
+    }
+
+    /**
+     * Switches where the arm's position PID runs. Can be changed while the robot is running (also from the
+     * arm/useSparkMaxPID NetworkTables entry) to compare the two.
+     */
+    public void setPidMode(PidMode mode) {
+        if (mode == this.pidMode) {
+            return;
+        }
+        this.pidMode = mode;
+        // Don't carry any integral from the last time we were in this mode
+        this.pidController1.reset();
+        this.pidController2.reset();
+        this.pidController3.reset();
+        this.pivot1OnboardPID.setIAccum(0);
+        this.pivot2OnboardPID.setIAccum(0);
+        this.turretOnboardPID.setIAccum(0);
+        TelemetryRegistry.ARM_CONTROL_MODE.set(mode.name());
+    }
+
+    public PidMode getPidMode() {
+        return this.pidMode;
+    }
+
+    /**
+     * Copies the roboRIO PID gains, speed multipliers and output limits over to the SparkMaxes. These are CAN writes,
+     * so only call this when one of them changes.
+     */
+    private void updateOnboardPIDGains() {
+        // The roboRIO path multiplies the PID output by the speed multiplier, scaling the gains does the same thing
+        configureOnboardPID(this.pivot1OnboardPID, this.pidController1, this.arm1SpeedMultiplier, this.minOutput, this.maxOutput);
+        configureOnboardPID(this.pivot2OnboardPID, this.pidController2, this.arm2SpeedMultiplier, this.minOutput2, this.maxOutput2);
+        configureOnboardPID(this.turretOnboardPID, this.pidController3, 1, this.minOutput, this.maxOutput);
+    }
+
+    private static void configureOnboardPID(SparkMaxPIDController onboard, PIDController controller, double multiplier, double minOutput, double maxOutput) {
+        // WPILib's gains are per second and per loop period, the SparkMax's are per 1ms loop
+        onboard.setP(controller.getP() * multiplier);
+        onboard.setI(controller.getI() * multiplier * 0.001);
+        onboard.setD(controller.getD() * multiplier / 0.001);
+        onboard.setFF(0);
+        onboard.setOutputRange(minOutput, maxOutput);
     }
 
     public double resetTurretEncoder() {
@@ -177,7 +350,6 @@ public class ArmSubsystem extends SubsystemBase {
      * Changes the intended coordinates by dx, dy, and dz
      */
     public void moveVector(double dx, double dy, double dz) {
-        updateCurrentCoordinates();
         setTargetCoordinates(targetX + dx, targetY + dy, targetZ + dz);
     }
 
@@ -187,16 +359,8 @@ public class ArmSubsystem extends SubsystemBase {
      * @return [pivot1Angle, pivot2Angle, turretAngle]
      */
     public double[] getCurrentAnglesDeg() {
-        double angle1 = pivot1Encoder.getPosition();
-        //double angle2 = (90 + angle1 + (MPU6050.getRoll()-80));
-        double angle2 = pivot2Encoder.getPosition();
-        double angle3 = turretEncoder.getPosition();
-
-        if (flipped) { //offset for when arm is flipped because our gearbox is lose for some reason
-            angle1 -= 8;
-        }
-
-        return new double[]{angle1, angle2, angle3};
+        ArmStateSnapshot state = this.snapshot;
+        return new double[]{state.getPivot1AngleDeg(), state.getPivot2AngleDeg(), state.getTurretAngleDeg()};
     }
 
     /**
@@ -205,16 +369,12 @@ public class ArmSubsystem extends SubsystemBase {
      * @return [pivot1Angle, pivot2Angle, turretAngle]
      */
     public double[] getCurrentAnglesRad() {
-        double angle1 = Math.toRadians(pivot1Encoder.getPosition());
-        //double angle2 = Math.toRadians((90 + angle1 + (MPU6050.getRoll()-80)));
-        double angle2 = pivot2Encoder.getPosition();
-        double angle3 = Math.toRadians(turretEncoder.getPosition());
-
-        return new double[]{angle1, angle2, angle3};
+        ArmStateSnapshot state = this.snapshot;
+        return new double[]{Math.toRadians(state.getPivot1Position()), Math.toRadians(state.getPivot2Position()), Math.toRadians(state.getTurretPosition())};
     }
 
     public double getTurretAngleDeg() {
-        return this.turretEncoder.getPosition();
+        return this.snapshot.getTurretAngleDeg();
     }
 
 
@@ -247,35 +407,26 @@ public class ArmSubsystem extends SubsystemBase {
 
     public void setTargetAngle1(double angle) {
         this.targetAngle1 = angle;
+        this.settleStartTime = Timer.getFPGATimestamp();
     }
 
     public void setTargetAngle2(double angle) {
         this.targetAngle2 = angle;
+        this.settleStartTime = Timer.getFPGATimestamp();
     }
 
     public boolean getControlMode(){
         return isManual;
     }
 
-    /**
-     * Uses motor encoder angles to update the current coordinates
-     */
-    public void updateCurrentCoordinates() {
-        double[] tempAngles = getCurrentAnglesDeg();
-        double[] coords = ForwardKinematicsUtil.getCoordinatesFromAngles(tempAngles[0], tempAngles[1], tempAngles[2]);
-        this.cur_x = coords[0];
-        this.cur_y = coords[1];
-        this.cur_z = coords[2];
-    }
-
     /*
-     * returns current coordinates
+     * returns current coordinates (from this loop's snapshot)
      * 
      * @return [x, y, z], where y is the height above ground.
      */
     public double[] getCurrentCoordinates() {
-        updateCurrentCoordinates();
-        return new double[]{this.cur_x, this.cur_y, this.cur_z};
+        ArmStateSnapshot state = this.snapshot;
+        return new double[]{state.getX(), state.getY(), state.getZ()};
     }
 
     /**
@@ -288,41 +439,51 @@ public class ArmSubsystem extends SubsystemBase {
     }
 
     public boolean getPivot1LimitPressed() {
-        return !this.arm1Limit.get();
+        return this.snapshot.isPivot1LimitPressed();
     }
 
     public boolean getPivot2LimitPressed() {
-        return !this.arm2Limit.get();
+        return this.snapshot.isPivot2LimitPressed();
     }
 
     public boolean getTurretLimitPressed(){
-        return !this.turretLimit.get();
+        return this.snapshot.isTurretLimitPressed();
     }
 
     public void setArm1SpeedMultiplier(double mult) {
         this.arm1SpeedMultiplier = mult;
+        updateOnboardPIDGains();
     }
 
     public void setArm2SpeedMultiplier(double mult) {
         this.arm2SpeedMultiplier = mult;
+        updateOnboardPIDGains();
     }
 
     public void goTowardTargetCoordinates() {
-        double[] angles = getCurrentAnglesDeg(); // gets the current angles read from motor encoders
+        ArmStateSnapshot state = this.snapshot; // the current angles read from motor encoders this loop
+        double angle1 = state.getPivot1AngleDeg();
+        double angle2 = state.getPivot2AngleDeg();
+        double angleTurret = state.getTurretAngleDeg();
+
+        if (Double.isNaN(angle1) || Double.isNaN(angle2) || Double.isNaN(angleTurret) || Double.isNaN(targetAngle1) || Double.isNaN(targetAngle2) || Double.isNaN(targetAngleTurret)) {
+            NAN_LOG.log("An angle is NaN, so skip");
+            return;
+        }
 
-        if (Double.isNaN(angles[0]) || Double.isNaN(angles[1]) || Double.isNaN(angles[2]) || Double.isNaN(targetAngle1) || Double.isNaN(targetAngle2) || Double.isNaN(targetAngleTurret)) {
-            System.out.println("An angle is NaN, so skip");
+        if (this.pidMode == PidMode.SPARKMAX_PID) {
+            goTowardTargetAnglesOnboard(state);
             return;
         }
 
         // gets PID control calculations
-        double p1Speed = pidController1.calculate(angles[0], targetAngle1) * arm1SpeedMultiplier;
-        double p2Speed = pidController2.calculate(angles[1], targetAngle2) * arm2SpeedMultiplier;
+        double p1Speed = pidController1.calculate(angle1, targetAngle1) * arm1SpeedMultiplier;
+        double p2Speed = pidController2.calculate(angle2, targetAngle2) * arm2SpeedMultiplier;
         double turretSpeed = 0;
 
         // if power is NaN, don't run it :D
         if (Double.isNaN(p1Speed) || Double.isNaN(p2Speed)) {
-            System.out.println("PID is NaN, so skip");
+            NAN_LOG.log("PID is NaN, so skip");
             return;
         }
 
@@ -330,7 +491,7 @@ public class ArmSubsystem extends SubsystemBase {
         p2Speed = Math.min(maxOutput2, Math.max(p2Speed, minOutput2));
 
         if (!is2D) { //only control turret or Z axis when auto
-            turretSpeed = pidController3.calculate(angles[2], targetAngleTurret);
+            turretSpeed = pidController3.calculate(angleTurret, targetAngleTurret);
             turretSpeed = Math.min(maxOutput, Math.max(turretSpeed, minOutput));
             if(Double.isNaN(turretSpeed)){
                 return;
@@ -343,6 +504,27 @@ public class ArmSubsystem extends SubsystemBase {
         // System.out.println("SPEEDS: " + p1Speed + " " + p2Speed + " " + turretSpeed);
     }
 
+    /**
+     * Sends the target angles to the SparkMaxes' onboard PID, with an arbitrary feedforward to hold the arm up against
+     * gravity (the onboard PID only sees position error, so it would sag without it).
+     */
+    private void goTowardTargetAnglesOnboard(ArmStateSnapshot state) {
+        // Pivot 1 angle is limb 1 from straight down, and limb 2 is at (pivot2 - pivot1) from straight up, so these are
+        // how far each limb is above level. Gravity's torque on a limb goes with cos() of that.
+        double limb1FromLevel = Math.toRadians(state.getPivot1AngleDeg() - 90);
+        double limb2FromLevel = Math.toRadians(90 - (state.getPivot2AngleDeg() - state.getPivot1AngleDeg()));
+        double pivot1FF = ArmConstants.PIVOT1_KG_VOLTS * Math.cos(limb1FromLevel);
+        double pivot2FF = ArmConstants.PIVOT2_KG_VOLTS * Math.cos(limb2FromLevel);
+
+        // The SparkMax only knows the raw encoder position, so undo the flip offset on the setpoint
+        double pivot1Setpoint = this.targetAngle1 + (state.getPivot1Position() - state.getPivot1AngleDeg());
+        this.pivot1OnboardPID.setReference(pivot1Setpoint, ControlType.kPosition, 0, pivot1FF, ArbFFUnits.kVoltage);
+        this.pivot2OnboardPID.setReference(this.targetAngle2, ControlType.kPosition, 0, pivot2FF, ArbFFUnits.kVoltage);
+        if (!is2D) { //only control turret or Z axis when auto
+            this.turretOnboardPID.setReference(this.targetAngleTurret, ControlType.kPosition);
+        }
+    }
+
     /**
      * sets the coordinate in which the arm "should" move towards
      * 
@@ -363,41 +545,46 @@ public class ArmSubsystem extends SubsystemBase {
             z = 0;
         }
 
+        // Out of reach targets get pulled back to the edge of what the arm can reach, so pushing the joystick too far slides the arm along the edge instead of doing nothing
+        if (!this.workspace.projectToReachable(x, y, z, getFlipped(), this.is2D, this.kinematicsBuffer)) {
+            HOTLINE_LOG.log("Hi this is the Arm Death Prevention Hotline @copyright setIntendedCoordinates: {}, {}, {}", x, y, z);
+            return;
+        }
+        x = this.kinematicsBuffer[0];
+        y = this.kinematicsBuffer[1];
+        z = this.kinematicsBuffer[2];
+
         // Updates target Angles
-        double[] targetAngles = InverseKinematicsUtil.getAnglesFromCoordinates(x, y, z, getFlipped());
+        Object ikEvent = RobotEvents.beginIkSolve();
+        ArmKinematicsSolver.Status status = this.kinematics.solveInverse(x, y, z, getFlipped(), this.targetJointState);
+        RobotEvents.endIkSolve(ikEvent, x, y, z, getFlipped(), status.name());
     
         // Stops any updates if IKU is out of bounds or calculation error occurs
-        if (Double.isNaN(targetAngles[0]) || Double.isNaN(targetAngles[1]) || Double.isNaN(targetAngles[2])) {
-            System.out.println("Hi this is the Arm Death Prevention Hotline @copyright setIntendedCoordinates");
+        if (!status.isOk()) {
+            HOTLINE_LOG.log("Hi this is the Arm Death Prevention Hotline @copyright setIntendedCoordinates: {}, {}, {}", x, y, z);
             return;
         }
 
         // Updates target angles
-        targetAngle1 = targetAngles[0];
-        targetAngle2 = targetAngles[1];
-        targetAngleTurret = targetAngles[2];
+        targetAngle1 = this.targetJointState.getPivot1Deg();
+        targetAngle2 = this.targetJointState.getPivot2Deg();
+        targetAngleTurret = this.targetJointState.getTurretDeg();
+        this.settleStartTime = Timer.getFPGATimestamp();
 
         // Updates target coordinates
-        double[] adjustedCoordinates = ForwardKinematicsUtil.getCoordinatesFromAngles(targetAngle1, targetAngle2, targetAngleTurret);
-        this.targetX = adjustedCoordinates[0];
-        this.targetY = adjustedCoordinates[1];
-        this.targetZ = adjustedCoordinates[2];
+        this.kinematics.solveForward(this.targetJointState, this.kinematicsBuffer);
+        this.targetX = this.kinematicsBuffer[0];
+        this.targetY = this.kinematicsBuffer[1];
+        this.targetZ = this.kinematicsBuffer[2];
     }
 
+    /**
+     * Drives both pivots back to their limit switches and resets the coordinates there.
+     *
+     * @see CalibrateArmPivotsCommand
+     */
     public CommandBase calibrateArm() {
-        pidOn = false;
-        return this.runOnce(() -> {
-            while (!getPivot2LimitPressed()) {
-                setPivot2Speed(-0.2);
-            }
-            setPivot2Speed(0);
-            while (!getPivot1LimitPressed()) {
-                setPivot1Speed(-0.2);
-            }
-            setPivot1Speed(0);
-            resetCoords();
-            pidOn = true;
-        });
+        return new CalibrateArmPivotsCommand(this);
     }
 
     /**
@@ -428,12 +615,14 @@ public class ArmSubsystem extends SubsystemBase {
             moveVector(0, 10, 0);
         }
         this.flipped = flipped;
+        ArmStateSnapshot state = this.snapshot;
+        rebuildSnapshot(state.getPivot1Position(), state.getPivot2Position(), state.getTurretPosition()); // the flip offset changed
         (new FlipArmCommand(this, flipped)).withInterruptBehavior(InterruptionBehavior.kCancelSelf).schedule();
     }
 
     public boolean isAtCoords(){
-        double[] curAngles = getCurrentAnglesDeg();
-        return (Math.abs(targetAngle1 - curAngles[0]) < ArmConstants.ANGLE_DELTA) && (Math.abs(targetAngle2 - curAngles[1]) < ArmConstants.ANGLE_DELTA) && (Math.abs(targetAngleTurret - curAngles[2]) < ArmConstants.ANGLE_DELTA);
+        ArmStateSnapshot state = this.snapshot;
+        return (Math.abs(targetAngle1 - state.getPivot1AngleDeg()) < ArmConstants.ANGLE_DELTA) && (Math.abs(targetAngle2 - state.getPivot2AngleDeg()) < ArmConstants.ANGLE_DELTA) && (Math.abs(targetAngleTurret - state.getTurretAngleDeg()) < ArmConstants.ANGLE_DELTA);
     }
 
     /**
@@ -441,22 +630,24 @@ public class ArmSubsystem extends SubsystemBase {
      * @return A Pose3d object representing the current claw pose.
      */
     public Pose3d getClawPose() {
-        this.updateCurrentCoordinates(); // Make sure the coordinates are the latest ones.
-        return new Pose3d(MathUtil.inchesToMeters(this.cur_x), MathUtil.inchesToMeters(this.cur_z), MathUtil.inchesToMeters(this.cur_y), new Rotation3d()); // z and y are swapped to handle our global coordinate system (the final coord parameter is the height).
+        ArmStateSnapshot state = this.snapshot;
+        return new Pose3d(MathUtil.inchesToMeters(state.getX()), MathUtil.inchesToMeters(state.getZ()), MathUtil.inchesToMeters(state.getY()), new Rotation3d()); // z and y are swapped to handle our global coordinate system (the final coord parameter is the height).
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
+        captureSnapshot();
+        ArmStateSnapshot state = this.snapshot;
         // System.out.println("ARM MOTOR ENCODERS: PIV1: " + this.pivot1Encoder.getPosition() + ", PIV2: " + this.pivot2Encoder.getPosition() + ", TURRET: " + this.turretEncoder.getPosition());
         // System.out.println("TARGET COORDS: " + targetX + ", " + targetY + ", " + targetZ);
         // System.out.println("ARM IKU FLIP STATE: " + this.flipped);
         // System.out.println("TARGET ANGLES: " + targetAngle1 + ", " + targetAngle2 + ", " + targetAngleTurret);
         // System.out.println("CURRENT ANGLES " + getCurrentAnglesDeg()[0] + " " + getCurrentAnglesDeg()[1] + " " + getCurrentAnglesDeg()[2]);
-        boolean resetPivot1 = getPivot1LimitPressed() && Math.abs(this.pivot1Encoder.getPosition() - ArmConstants.ARM_1_INITIAL_ANGLE) > 0.1 && Math.abs(targetAngle1 - ArmConstants.ARM_1_INITIAL_ANGLE) < 5;
-        boolean resetPivot2 = getPivot2LimitPressed() && Math.abs(this.pivot2Encoder.getPosition() - ArmConstants.ARM_2_INITIAL_ANGLE) > 0.1 && Math.abs(targetAngle2 - ArmConstants.ARM_2_INITIAL_ANGLE) < 5;
+        boolean resetPivot1 = state.isPivot1LimitPressed() && Math.abs(state.getPivot1Position() - ArmConstants.ARM_1_INITIAL_ANGLE) > 0.1 && Math.abs(targetAngle1 - ArmConstants.ARM_1_INITIAL_ANGLE) < 5;
+        boolean resetPivot2 = state.isPivot2LimitPressed() && Math.abs(state.getPivot2Position() - ArmConstants.ARM_2_INITIAL_ANGLE) > 0.1 && Math.abs(targetAngle2 - ArmConstants.ARM_2_INITIAL_ANGLE) < 5;
         // System.out.println("TURRET SPEED: " + turret.get() + ", ANG: " + getTurretAngleDeg());
         
-        if(getTurretLimitPressed()){
+        if(state.isTurretLimitPressed()){
             //if(tempAngle < 180 && tempAngle > -180){
                 //System.out.println("RESET TURRTE");
                 this.turretEncoder.setPosition(0);
@@ -479,6 +670,13 @@ public class ArmSubsystem extends SubsystemBase {
             resetCoords();
         }
 
+        // Keep the snapshot in line with the encoders we just reset
+        if (resetPivot1 || resetPivot2 || state.isTurretLimitPressed()) {
+            rebuildSnapshot(resetPivot1 ? ArmConstants.ARM_1_INITIAL_ANGLE : this.snapshot.getPivot1Position(),
+                    resetPivot2 ? ArmConstants.ARM_2_INITIAL_ANGLE : this.snapshot.getPivot2Position(),
+                    state.isTurretLimitPressed() ? 0 : this.snapshot.getTurretPosition());
+        }
+
         
 
 
@@ -550,9 +748,29 @@ public class ArmSubsystem extends SubsystemBase {
 
         //handles PID
         // System.out.println("PID STATE: " + pidOn);
+        boolean useSparkMaxPID = TelemetryRegistry.ARM_USE_SPARKMAX_PID.get();
+        if (useSparkMaxPID != (this.pidMode == PidMode.SPARKMAX_PID)) {
+            setPidMode(useSparkMaxPID ? PidMode.SPARKMAX_PID : PidMode.ROBORIO_PID);
+        }
+
         if (pidOn) {
+            long start = System.nanoTime();
             goTowardTargetCoordinates();
+            this.controlLoopTimeMicros = (System.nanoTime() - start) / 1000.0;
+        }
+        publishControlStats();
+    }
+
+    /**
+     * Publishes how long the arm took to get to its last target and how long the control code took this loop, so that
+     * {@link PidMode}s can be compared on the robot.
+     */
+    private void publishControlStats() {
+        if (!Double.isNaN(this.settleStartTime) && this.pidOn && isAtCoords()) {
+            TelemetryRegistry.ARM_SETTLE_TIME.set(this.snapshot.getTimestamp() - this.settleStartTime);
+            this.settleStartTime = Double.NaN;
         }
+        TelemetryRegistry.ARM_CONTROL_LOOP_TIME.set(this.controlLoopTimeMicros);
     }
 
     @Override
@@ -4,9 +4,8 @@ import edu.wpi.first.wpilibj.Compressor;
 import edu.wpi.first.wpilibj.DoubleSolenoid;
 import edu.wpi.first.wpilibj.DoubleSolenoid.Value;
 import edu.wpi.first.wpilibj.PneumaticsModuleType;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
-public class ClawGripSubsystem extends SubsystemBase {
+public class ClawGripSubsystem extends ProfiledSubsystem {
     private final DoubleSolenoid doubleSolenoid;
     private final Compressor compressor;
     private boolean clawClosed;
@@ -50,7 +49,7 @@ public class ClawGripSubsystem extends SubsystemBase {
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
         this.doubleSolenoid.set(this.clawClosed ? Value.kForward : Value.kReverse); //open and close claw based on clawClosed boolean
     }
 
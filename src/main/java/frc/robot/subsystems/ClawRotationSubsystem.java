@@ -9,13 +9,12 @@ import com.revrobotics.CANSparkMaxLowLevel.MotorType;
 import com.revrobotics.RelativeEncoder;
 
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.ClawConstants;
 import frc.robot.Constants.PortConstants;
 import frc.robot.subsystems.staticsubsystems.LimeLight;
 
 
-public class ClawRotationSubsystem extends SubsystemBase {
+public class ClawRotationSubsystem extends ProfiledSubsystem {
     private final CANSparkMax clawRotator;
     private final RelativeEncoder clawRotationEncoder;
 
@@ -67,7 +66,7 @@ public class ClawRotationSubsystem extends SubsystemBase {
     }
 
     @Override
-    public void periodic() {
+    protected void profiledPeriodic() {
         setAngle(targetAngle);
     }
 
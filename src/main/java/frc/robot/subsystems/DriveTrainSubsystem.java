@@ -6,6 +6,7 @@ package frc.robot.subsystems;
 
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
 import com.revrobotics.RelativeEncoder;
 
 import edu.wpi.first.math.MatBuilder;
@@ -22,25 +23,69 @@ import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.math.trajectory.TrajectoryConfig;
 import edu.wpi.first.math.trajectory.TrajectoryGenerator;
 import edu.wpi.first.math.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.drive.DifferentialDrive;
 import edu.wpi.first.wpilibj.motorcontrol.MotorControllerGroup;
+import edu.wpi.first.wpilibj.simulation.DifferentialDrivetrainSim;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.RamseteCommand;
-import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.DriveConstants.TrajectoryConstants;
 import frc.robot.Constants.FieldConstants.AprilTagConstants;
 import frc.robot.Constants.OperatorConstants.ControllerConstants;
+import frc.robot.commands.drivecommands.AsyncTrajectoryCommand;
 import frc.robot.controllers.FlightJoystick;
 import frc.robot.Constants.PortConstants;
 import frc.robot.subsystems.staticsubsystems.RobotGyro;
+import frc.robot.util.MathUtil;
 import frc.robot.util.NetworkTablesUtil;
+import frc.robot.util.PoseHistoryBuffer;
+import frc.robot.util.RobotEvents;
+import frc.robot.util.RobotLogger;
+import frc.robot.util.TelemetryRegistry;
+import frc.robot.util.TrajectoryCache;
 
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DriveTrainSubsystem extends ProfiledSubsystem {
+    private static final RobotLogger.Channel POSE_LOG = RobotLogger.channel(1.0);
 
-public class DriveTrainSubsystem extends SubsystemBase {
+    /**
+     * A pose from the odometry thread and the FPGA time (seconds) it was measured at. Immutable, so it can be handed
+     * between threads safely.
+     */
+    public static final class PoseSnapshot {
+        private final Pose2d poseMeters;
+        private final double timestamp;
+
+        public PoseSnapshot(Pose2d poseMeters, double timestamp) {
+            this.poseMeters = poseMeters;
+            this.timestamp = timestamp;
+        }
+
+        public Pose2d getPoseMeters() {
+            return this.poseMeters;
+        }
+
+        public double getTimestamp() {
+            return this.timestamp;
+        }
+    }
 
     private final CANSparkMax frontLeftMotor;
     private final CANSparkMax frontRightMotor;
@@ -66,6 +111,39 @@ public class DriveTrainSubsystem extends SubsystemBase {
 
     private final DifferentialDrivePoseEstimator m_poseEstimator;
 
+    // The estimator is updated on the odometry thread, so anything else that touches it has to hold this lock.
+    // Readers should use poseSnapshot instead, which never blocks.
+    private final Object poseEstimatorLock = new Object();
+    private final AtomicReference<PoseSnapshot> poseSnapshot;
+
+    // Vision fusion, only touched on the odometry thread (or under poseEstimatorLock)
+    private final PoseHistoryBuffer poseHistory = new PoseHistoryBuffer(DriveConstants.POSE_HISTORY_SIZE);
+    private final double[] historicalPose = new double[3];
+    private long lastVisionChange = 0;
+    private long visionAccepted = 0;
+    private long visionRejected = 0;
+
+    // The configs never change, so build them once instead of on every generateTrajectory call
+    private static final TrajectoryConfig FORWARD_TRAJECTORY_CONFIG = makeTrajectoryConfig(false);
+    private static final TrajectoryConfig REVERSED_TRAJECTORY_CONFIG = makeTrajectoryConfig(true);
+    private static final TrajectoryCache TRAJECTORY_CACHE = new TrajectoryCache(TrajectoryConstants.CACHE_SIZE,
+            TrajectoryConstants.CACHE_POSITION_TOLERANCE_METERS, TrajectoryConstants.CACHE_ANGLE_TOLERANCE_RADIANS);
+    // Trajectories for AsyncTrajectoryCommand get generated here, off the scheduler loop. One thread and a short queue,
+    // so a pile of cancelled or stale requests can't back up behind each other
+    private static final ThreadPoolExecutor TRAJECTORY_GENERATOR = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(TrajectoryConstants.ASYNC_GENERATION_QUEUE_SIZE), runnable -> {
+                Thread thread = new Thread(runnable, "TrajectoryGenerator");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Notifier odometryNotifier;
+    private final double[] odometryTelemetry = new double[3];
+
+    // Only made in simulation, see simulationPeriodic(). The odometry thread reads the volatiles instead of the encoders.
+    private final DifferentialDrivetrainSim driveSim;
+    private volatile double simLeftPosition, simRightPosition, simLeftVelocity, simRightVelocity;
+
     public DriveTrainSubsystem(FlightJoystick joystick) {
         this.frontLeftMotor = new CANSparkMax(PortConstants.FRONT_LEFT_MOTOR_PORT, MotorType.kBrushless);
         this.frontRightMotor = new CANSparkMax(PortConstants.FRONT_RIGHT_MOTOR_PORT, MotorType.kBrushless);
@@ -94,17 +172,39 @@ public class DriveTrainSubsystem extends SubsystemBase {
         this.frontLeftMotor.setInverted(false);
         this.rearLeftMotor.setInverted(false);
 
+        if (RobotBase.isSimulation()) {
+            this.driveSim = new DifferentialDrivetrainSim(
+                LinearSystemId.identifyDrivetrainSystem(DriveConstants.KV_VOLTS_SECONDS_PER_METER, DriveConstants.KA_VOLTS_SECONDS_SQ_PER_METER,
+                        DriveConstants.KV_VOLTS_SECONDS_PER_METER, DriveConstants.KA_VOLTS_SECONDS_SQ_PER_METER),
+                DCMotor.getNEO(2),
+                DriveConstants.GEARING,
+                DriveConstants.TRACKWIDTH_METERS,
+                DriveConstants.K_WHEEL_RADIUS,
+                null);
+        } else {
+            this.driveSim = null;
+        }
+
         this.m_poseEstimator = new DifferentialDrivePoseEstimator(
             DriveConstants.DRIVE_KINEMATICS,
             RobotGyro.getRotation2d(),
-            frontLeftEncoder.getPosition(), 
-            frontRightEncoder.getPosition(), 
+            this.getLeftPositionMeters(),
+            this.getRightPositionMeters(),
             new Pose2d(), 
             new MatBuilder<>(Nat.N3(), Nat.N1()).fill(0.02,0.02,0.01), 
             new MatBuilder<>(Nat.N3(), Nat.N1()).fill(0.1,0.1,0.01)
         );
+        this.poseSnapshot = new AtomicReference<>(new PoseSnapshot(this.m_poseEstimator.getEstimatedPosition(), Timer.getFPGATimestamp()));
         this.joystick = joystick;
 
+        // The odometry thread reads the encoders faster than the default 20ms status frame, so speed up the frames it reads from
+        this.frontLeftMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus2, DriveConstants.ODOMETRY_STATUS_FRAME_MS);
+        this.frontRightMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus2, DriveConstants.ODOMETRY_STATUS_FRAME_MS);
+
+        this.odometryNotifier = new Notifier(this::updateOdometry);
+        this.odometryNotifier.setName("Odometry");
+        this.odometryNotifier.startPeriodic(DriveConstants.ODOMETRY_PERIOD_SECONDS);
+
         this.tankDrive = new DifferentialDrive(leftMotorGroup, rightMotorGroup);
         tankDrive.setSafetyEnabled(false);
 
@@ -142,16 +242,49 @@ public class DriveTrainSubsystem extends SubsystemBase {
     }
 
     public void resetOdometry(Pose2d pose) {
-        resetEncoders();
-        m_poseEstimator.resetPosition(new Rotation2d(RobotGyro.getGyroAngleDegreesYaw()), frontLeftEncoder.getPosition(), frontRightEncoder.getPosition(), pose);
+        // The encoders aren't reset here: the new position wouldn't show up until their next status frame, and the odometry
+        // thread would see that as the robot jumping. The estimator only cares about how far they move from here anyway.
+        synchronized (this.poseEstimatorLock) {
+            m_poseEstimator.resetPosition(RobotGyro.getRotation2d(), this.getLeftPositionMeters(), this.getRightPositionMeters(), pose);
+            // Old poses are from before the jump, vision shouldn't be checked against them
+            this.poseHistory.clear();
+            this.poseSnapshot.set(new PoseSnapshot(m_poseEstimator.getEstimatedPosition(), Timer.getFPGATimestamp()));
+        }
     }
 
     public DifferentialDriveWheelSpeeds getWheelSpeeds() {
+        if (this.driveSim != null) {
+            return new DifferentialDriveWheelSpeeds(this.simLeftVelocity, this.simRightVelocity);
+        }
         return new DifferentialDriveWheelSpeeds(frontLeftEncoder.getVelocity() / 60d, frontRightEncoder.getVelocity() / 60d);
     }
 
+    /**
+     * @return How far the left side has gone in meters (from the sim when simulating)
+     */
+    private double getLeftPositionMeters() {
+        return this.driveSim != null ? this.simLeftPosition : frontLeftEncoder.getPosition();
+    }
+
+    /**
+     * @return How far the right side has gone in meters (from the sim when simulating)
+     */
+    private double getRightPositionMeters() {
+        return this.driveSim != null ? this.simRightPosition : frontRightEncoder.getPosition();
+    }
+
+    /**
+     * The latest pose from the odometry thread. Never blocks.
+     */
     public Pose2d getPoseMeters() {
-        return m_poseEstimator.getEstimatedPosition();
+        return this.poseSnapshot.get().getPoseMeters();
+    }
+
+    /**
+     * The latest pose from the odometry thread, along with when it was measured.
+     */
+    public PoseSnapshot getPoseSnapshot() {
+        return this.poseSnapshot.get();
     }
 
     public Pose2d getPoseInches() {
@@ -165,13 +298,68 @@ public class DriveTrainSubsystem extends SubsystemBase {
         return new InstantCommand(() -> resetOdometry(pose), this);
     }
 
-    public void updateOdometry() {
-        m_poseEstimator.update(RobotGyro.getRotation2d(), frontLeftEncoder.getPosition(), frontRightEncoder.getPosition()); //update pose
-    
-        // Also apply vision measurements
-        // m_poseEstimator.addVisionMeasurement(
-        //     NetworkTablesUtil.getJetsonPoseMeters(),
-        //    Timer.getFPGATimestamp() - AprilTagConstants.LATENCY);
+    /**
+     * Runs on the odometry thread every {@link DriveConstants#ODOMETRY_PERIOD_SECONDS}, don't call it from anywhere else.
+     */
+    private void updateOdometry() {
+        double timestamp = Timer.getFPGATimestamp();
+        Object canReadEvent = RobotEvents.beginCanRead();
+        Rotation2d gyroAngle = RobotGyro.getRotation2d();
+        double leftPosition = this.getLeftPositionMeters();
+        double rightPosition = this.getRightPositionMeters();
+        RobotEvents.endCanRead(canReadEvent, "DriveTrainSubsystem odometry");
+        synchronized (this.poseEstimatorLock) {
+            Pose2d pose = m_poseEstimator.updateWithTime(timestamp, gyroAngle, leftPosition, rightPosition); //update pose
+            this.poseHistory.add(timestamp, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+
+            // Also apply vision measurements
+            if (DriveConstants.USE_VISION_FUSION) {
+                this.fuseVisionMeasurement(timestamp);
+            }
+            this.poseSnapshot.set(new PoseSnapshot(m_poseEstimator.getEstimatedPosition(), timestamp));
+        }
+    }
+
+    /**
+     * Feeds a new Jetson pose (if there is one) into the estimator at the time the camera saw it.
+     * <p>
+     * The capture time is the NT server timestamp of the pose minus {@link AprilTagConstants#LATENCY}. The roboRIO is
+     * the NT server, so server time is already FPGA time. Measurements are thrown out if they're older than the pose
+     * history or too far from where odometry says we were at that time. Vision only gives us x and y, so the heading
+     * comes from the history too.
+     *
+     * @param now FPGA time in seconds
+     */
+    private void fuseVisionMeasurement(double now) {
+        long lastChange = TelemetryRegistry.JETSON_POSE.getLastChange();
+        if (lastChange == this.lastVisionChange) {
+            return;
+        }
+        this.lastVisionChange = lastChange;
+
+        TimestampedDoubleArray measurement = TelemetryRegistry.JETSON_POSE.getAtomic();
+        double captureTime = measurement.serverTime / 1e6 - AprilTagConstants.LATENCY;
+        boolean accepted = false;
+        if (measurement.value.length >= 3 && this.poseHistory.sample(captureTime, this.historicalPose)) {
+            // Jetson sends [x, y, z] in inches, and its z is our field y
+            double visionX = MathUtil.inchesToMeters(measurement.value[0]);
+            double visionY = MathUtil.inchesToMeters(measurement.value[2]);
+            double error = Math.hypot(visionX - this.historicalPose[0], visionY - this.historicalPose[1]);
+            if (error <= DriveConstants.VISION_MAX_POSE_ERROR_METERS) {
+                m_poseEstimator.addVisionMeasurement(new Pose2d(visionX, visionY, new Rotation2d(this.historicalPose[2])), captureTime);
+                accepted = true;
+            }
+        }
+
+        if (accepted) {
+            this.visionAccepted++;
+            TelemetryRegistry.VISION_ACCEPTED.set(this.visionAccepted);
+            TelemetryRegistry.VISION_LATENCY.set((now - captureTime) * 1000);
+        } else {
+            this.visionRejected++;
+            TelemetryRegistry.VISION_REJECTED.set(this.visionRejected);
+        }
+        TelemetryRegistry.VISION_ACCEPTANCE_RATE.set((double) this.visionAccepted / (this.visionAccepted + this.visionRejected));
     }
 
     // Generate command for following a trajectory
@@ -181,28 +369,78 @@ public class DriveTrainSubsystem extends SubsystemBase {
         return this.generateRamseteCommand(trajectory);
     }
 
+    /**
+     * Same as {@link #generateRamseteCommand(Pose2d, Pose2d, boolean)}, but the trajectory gets generated on a worker
+     * thread after the command is scheduled instead of right now. See {@link AsyncTrajectoryCommand}.
+     * @param deadlineSeconds How long the command waits for the trajectory before running the fallback
+     * @param fallback What to run if the trajectory isn't ready in time, can be null to just stop
+     */
+    public Command generateRamseteCommandAsync(Pose2d startPoint, Pose2d endPoint, boolean reversed, double deadlineSeconds, Command fallback) {
+        return new AsyncTrajectoryCommand(this, startPoint, List.of(), endPoint, reversed, deadlineSeconds, fallback);
+    }
+
+    /**
+     * {@link #generateRamseteCommandAsync(Pose2d, Pose2d, boolean, double, Command)} with the default deadline
+     * ({@link TrajectoryConstants#ASYNC_GENERATION_DEADLINE_SECONDS}).
+     */
+    public Command generateRamseteCommandAsync(Pose2d startPoint, Pose2d endPoint, boolean reversed, Command fallback) {
+        return this.generateRamseteCommandAsync(startPoint, endPoint, reversed, TrajectoryConstants.ASYNC_GENERATION_DEADLINE_SECONDS, fallback);
+    }
+
+    /**
+     * Runs {@link #generateTrajectory} on the trajectory worker thread.
+     * <p>
+     * Cancel the future with {@code cancel(true)} when the trajectory isn't wanted anymore. If it hasn't started yet it
+     * never runs, if it has the worker gets interrupted and the result is thrown away (WPILib's generator doesn't stop
+     * part way through, so the thread stays busy until that one trajectory is done).
+     * @return A future that completes with the trajectory, or fails if generation failed or the queue was full
+     */
+    public Future<Trajectory> generateTrajectoryAsync(Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reversed) {
+        // Cancelled requests stay in the queue until the worker gets to them, clear them out so they don't take up room
+        TRAJECTORY_GENERATOR.purge();
+        FutureTask<Trajectory> task = new FutureTask<>(() -> {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Trajectory generation was cancelled");
+            }
+            return this.generateTrajectory(start, waypoints, end, reversed);
+        });
+        try {
+            TRAJECTORY_GENERATOR.execute(task);
+        } catch (RejectedExecutionException ex) {
+            task.cancel(false);
+        }
+        return task;
+    }
+
     /**
      * A wrapper around {@link TrajectoryGenerator#generateTrajectory(Pose2d, List, Pose2d, TrajectoryConfig) that handles the config internally.
+     * Results are cached (see {@link TrajectoryCache}), so asking for the same path again is free.
      * @param start The start Pose2d
      * @param waypoints A list of Translation2d waypoints to follow. Pass in {@link List#of()} if you don't want any waypoints.
      * @param end The end Pose2d
      * @return A trajectory. Use this to generate a follow command with {@link #generateRamseteCommand(Trajectory)}.
      */
     public Trajectory generateTrajectory(Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reversed) {
+        return TRAJECTORY_CACHE.get(start, waypoints, end, reversed, DriveTrainSubsystem::generateUncachedTrajectory);
+    }
+
+    private static Trajectory generateUncachedTrajectory(Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reversed) {
+        // A trajectory to follow. All units in meters.
+        return TrajectoryGenerator.generateTrajectory(start, waypoints, end, reversed ? REVERSED_TRAJECTORY_CONFIG : FORWARD_TRAJECTORY_CONFIG);
+    }
+
+    private static TrajectoryConfig makeTrajectoryConfig(boolean reversed) {
         // Create a voltage constraint to ensure we don't accelerate too fast
         var autoVoltageConstraint = new DifferentialDriveVoltageConstraint(new SimpleMotorFeedforward(DriveConstants.KS_VOLTS, DriveConstants.KV_VOLTS_SECONDS_PER_METER, DriveConstants.KA_VOLTS_SECONDS_SQ_PER_METER), DriveConstants.DRIVE_KINEMATICS, 10);
 
         // Create config for trajectory
-        TrajectoryConfig config = new TrajectoryConfig(TrajectoryConstants.MAX_SPEED_METERS_PER_SECOND, TrajectoryConstants.MAX_ACCELERATION_METERS_PER_SECOND_SQUARED)
+        return new TrajectoryConfig(TrajectoryConstants.MAX_SPEED_METERS_PER_SECOND, TrajectoryConstants.MAX_ACCELERATION_METERS_PER_SECOND_SQUARED)
                 // Add kinematics to ensure max speed is actually obeyed
                 .setKinematics(DriveConstants.DRIVE_KINEMATICS)
                 // Apply the voltage constraint
                 .addConstraint(autoVoltageConstraint)
                 // Set reversed
                 .setReversed(reversed);
-
-        // A trajectory to follow. All units in meters.
-        return TrajectoryGenerator.generateTrajectory(start, waypoints, end, config);
     }
 
     /**
@@ -238,22 +476,19 @@ public class DriveTrainSubsystem extends SubsystemBase {
     }
 
     @Override
-    public void periodic() {
-
+    protected void profiledPeriodic() {
         /*if (RobotContainer.inTeleop) {
             if (Math.abs(this.joystick.getHorizontalMovement()) < 0.1 && Math.abs(this.joystick.getLateralMovement()) < 0.1) {
                 var gyroRad = Math.toRadians(RobotGyro.getGyroAngleDegreesYaw());
                 odometry.resetPosition(new Rotation2d(gyroRad), frontLeftEncoder.getPosition(), frontRightEncoder.getPosition(), new Pose2d(NetworkTablesUtil.getJetsonPoseMeters(), new Rotation2d(gyroRad)));
             }
         }*/
-        updateOdometry();
-
+        // Odometry runs on its own thread (see odometryNotifier), this just grabs the latest pose
         Pose2d pose = getPoseMeters();
-        double[] sendPose = {pose.getX(), pose.getY(), pose.getRotation().getRadians()};
-        NetworkTablesUtil.getEntry("robot", "drive_odometry").setDoubleArray(sendPose);
-
-        var wheelspeeds = getWheelSpeeds();
-        // System.out.println("CURRENT VELOCITY: L " + wheelspeeds.leftMetersPerSecond + ", R " + wheelspeeds.rightMetersPerSecond);
+        this.odometryTelemetry[0] = pose.getX();
+        this.odometryTelemetry[1] = pose.getY();
+        this.odometryTelemetry[2] = pose.getRotation().getRadians();
+        TelemetryRegistry.DRIVE_ODOMETRY.set(this.odometryTelemetry);
 
         // System.out.println("Gyro Yaw: " + RobotGyro.getGyroAngleDegreesYaw());
         // System.out.println("Gyro Roll: " + RobotGyro.getGyroAngleDegreesRoll());
@@ -264,7 +499,7 @@ public class DriveTrainSubsystem extends SubsystemBase {
             RobotGyro.resetGyroAngle();
         }
 
-        System.out.println(pose);
+        POSE_LOG.log("Pose (m, m, rad): {}, {}, {}", pose.getX(), pose.getY(), pose.getRotation().getRadians());
 
         // System.out.println("FL: " + frontLeftEncoder.getPosition() + ", FR: " + frontRightEncoder.getPosition() + ", RL: " + rearLeftEncoder.getPosition() + ", RR: " + rearRightEncoder.getPosition());
 
@@ -280,9 +515,42 @@ public class DriveTrainSubsystem extends SubsystemBase {
 
     }
 
+    /**
+     * Steps the drivetrain physics model with whatever voltages the motors were last given, then feeds the results to
+     * the odometry thread and the simulated gyro. There's no model for tipping, so the simulated pitch stays at 0.
+     */
     @Override
     public void simulationPeriodic() {
+        double batteryVoltage = RobotController.getBatteryVoltage();
+        this.driveSim.setInputs(this.leftMotorGroup.get() * batteryVoltage, this.rightMotorGroup.get() * batteryVoltage);
+        this.driveSim.update(0.02);
+
+        this.simLeftPosition = this.driveSim.getLeftPositionMeters();
+        this.simRightPosition = this.driveSim.getRightPositionMeters();
+        this.simLeftVelocity = this.driveSim.getLeftVelocityMetersPerSecond();
+        this.simRightVelocity = this.driveSim.getRightVelocityMetersPerSecond();
+        RobotGyro.setSimulatedAngles(this.driveSim.getHeading().getDegrees(), 0);
+    }
 
+    /**
+     * Teleports the simulated robot (and odometry) to a pose and stops it. Only works in simulation.
+     */
+    public void resetSimulation(Pose2d pose) {
+        this.driveSim.setInputs(0, 0);
+        this.driveSim.setState(new MatBuilder<>(Nat.N7(), Nat.N1()).fill(pose.getX(), pose.getY(), pose.getRotation().getRadians(), 0, 0, 0, 0));
+        this.simLeftPosition = 0;
+        this.simRightPosition = 0;
+        this.simLeftVelocity = 0;
+        this.simRightVelocity = 0;
+        RobotGyro.setSimulatedAngles(pose.getRotation().getDegrees(), 0);
+        this.resetOdometry(pose);
+    }
+
+    /**
+     * @return Where the physics model says the robot really is, for comparing against odometry. Null on the real robot.
+     */
+    public Pose2d getSimulatedPose() {
+        return this.driveSim != null ? this.driveSim.getPose() : null;
     }
 
     public void stopMotors() {
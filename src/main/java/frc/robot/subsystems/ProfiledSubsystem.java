@@ -0,0 +1,28 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.util.LoopProfiler;
+
+/**
+ * A subsystem whose periodic code gets timed by the {@link LoopProfiler}, under {@code <class name>.periodic}. Put
+ * the periodic code in {@link #profiledPeriodic()} instead of overriding periodic(), the timing happens here so the
+ * subsystems don't each need their own start/stop calls.
+ */
+public abstract class ProfiledSubsystem extends SubsystemBase {
+    private final LoopProfiler.Section periodicProfile = LoopProfiler.section(getClass().getSimpleName() + ".periodic");
+
+    @Override
+    public final void periodic() {
+        this.periodicProfile.start();
+        try {
+            this.profiledPeriodic();
+        } finally {
+            this.periodicProfile.stop();
+        }
+    }
+
+    /**
+     * Called once per scheduler run, same as periodic().
+     */
+    protected abstract void profiledPeriodic();
+}
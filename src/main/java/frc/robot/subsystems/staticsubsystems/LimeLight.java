@@ -1,7 +1,22 @@
 package frc.robot.subsystems.staticsubsystems;
 import edu.wpi.first.math.controller.PIDController;
-import frc.robot.util.NetworkTablesUtil;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+import frc.robot.Constants.LimeLightConstants;
+import frc.robot.subsystems.ArmSubsystem;
+import frc.robot.util.TelemetryRegistry;
 
+/**
+ * Aiming adjustments from the LimeLight. Everything here reads from the current {@link LimeLightFrame}, which
+ * {@link #update()} refreshes once per loop. The aim uses the filtered error from the current pipeline's
+ * {@link TargetTracker} rather than the raw values, and gives no adjustment while there's no valid track.
+ * <p>
+ * Pipelines should be switched with {@link #setPipeline(int)}, which only writes to NetworkTables when the pipeline
+ * actually changes. The LimeLight takes a few frames to switch, so until it reports (getpipe) that it's running the
+ * new pipeline and has settled for {@link LimeLightConstants#PIPELINE_SETTLE_LOOPS} loops, the pipeline isn't ready:
+ * there's no track and every adjustment is 0, so nothing aims at the old pipeline's targets.
+ */
 public class LimeLight {
     private static final double DESIRED_AREA_CONE = 5000; // tentative measurement, pixels
     private static final double DESIRED_AREA_CUBE = 420; // measure later
@@ -10,16 +25,155 @@ public class LimeLight {
     private static final double kd = 0.001;
     private static final PIDController adjustmentPID = new PIDController(kp, ki, kd);
     private static final PIDController adjustmentPID2 = new PIDController(kp, ki, kd);
+    private static final LimeLightFrame frame = new LimeLightFrame();
+    private static final TargetTracker coneTracker = new TargetTracker();
+    private static final TargetTracker cubeTracker = new TargetTracker();
+    private static final TargetTracker noTracker = new TargetTracker(); // never updated, so never valid
+    private static final double[] adjustments = new double[3]; // returned by getAdjustmentFromError, see there
+
+    // Pipeline switching, see setPipeline()
+    private static int requestedPipeline = -1; // -1 = never asked for one, use whatever it's running
+    private static boolean pipelineConfirmed = true;
+    private static double pipelineConfirmedTimestamp = 0;
+    private static int loopsSinceConfirmed = LimeLightConstants.PIPELINE_SETTLE_LOOPS;
 
     public static void poke() {
         System.out.println("LimeLight initialized");
     }
 
+    /**
+     * Reads the LimeLight's values from NetworkTables. Call once per loop, before the scheduler runs.
+     */
+    public static void update() {
+        frame.update();
+
+        if (requestedPipeline >= 0 && frame.getPipeline() != requestedPipeline) {
+            pipelineConfirmed = false;
+            loopsSinceConfirmed = 0;
+        } else if (!pipelineConfirmed) {
+            pipelineConfirmed = true;
+            pipelineConfirmedTimestamp = frame.getTimestamp();
+        } else if (loopsSinceConfirmed < LimeLightConstants.PIPELINE_SETTLE_LOOPS) {
+            loopsSinceConfirmed++;
+        }
+
+        TargetTracker tracker = getTracker(frame.getPipeline());
+        if (pipelineConfirmed && tracker != noTracker) {
+            tracker.update(frame, pipelineConfirmedTimestamp);
+        }
+    }
+
+    /**
+     * Asks the LimeLight to switch pipelines. Safe to call every loop, it only writes when the pipeline changes.
+     *
+     * @param pipeline The pipeline to run
+     */
+    public static void setPipeline(int pipeline) {
+        if (pipeline == requestedPipeline) {
+            return;
+        }
+        requestedPipeline = pipeline;
+        pipelineConfirmed = false;
+        loopsSinceConfirmed = 0;
+        getTracker(pipeline).reset(); // whatever it was tracking last time it ran this pipeline is long gone
+        TelemetryRegistry.LIMELIGHT_PIPELINE.set((double) pipeline);
+    }
+
+    /**
+     * @return True once the LimeLight is running the pipeline from {@link #setPipeline(int)} and has settled, so its
+     * values are from that pipeline
+     */
+    public static boolean isPipelineReady() {
+        return pipelineConfirmed && loopsSinceConfirmed >= LimeLightConstants.PIPELINE_SETTLE_LOOPS;
+    }
+
+    /**
+     * @return Trigger that's active while {@link #isPipelineReady()}
+     */
+    public static Trigger pipelineReady() {
+        return new Trigger(LimeLight::isPipelineReady);
+    }
+
+    /**
+     * @param pipeline The pipeline to run
+     * @return Command that switches pipelines and ends once the new one is ready, or after
+     * {@link LimeLightConstants#PIPELINE_SWITCH_TIMEOUT_SECONDS} if the LimeLight never confirms it
+     */
+    public static Command switchPipelineCommand(int pipeline) {
+        return Commands.runOnce(() -> setPipeline(pipeline))
+                .andThen(Commands.waitUntil(LimeLight::isPipelineReady))
+                .withTimeout(LimeLightConstants.PIPELINE_SWITCH_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * @return What the LimeLight said as of the start of this loop
+     */
+    public static LimeLightFrame getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return The tracker for the pipeline the LimeLight is running, or one that's never valid if it isn't running a
+     * game piece pipeline or the pipeline isn't ready yet
+     */
+    public static TargetTracker getTracker() {
+        return isPipelineReady() ? getTracker(frame.getPipeline()) : noTracker;
+    }
+
+    /**
+     * @param pipeline {@link LimeLightConstants#CONE_PIPELINE} or {@link LimeLightConstants#CUBE_PIPELINE}
+     * @return The tracker for that pipeline, or one that's never valid for any other pipeline
+     */
+    public static TargetTracker getTracker(int pipeline) {
+        switch (pipeline) {
+            case LimeLightConstants.CONE_PIPELINE:
+                return coneTracker;
+            case LimeLightConstants.CUBE_PIPELINE:
+                return cubeTracker;
+            default:
+                return noTracker;
+        }
+    }
+
+    /**
+     * @return True if the current pipeline has a valid track on a game piece
+     */
+    public static boolean hasTrack() {
+        return getTracker().isValid();
+    }
+
     public LimeLight() {
     }
 
+    /**
+     * @return Turret adjustment from the tracked error, predicted forward to now. 0 if there's no valid track.
+     */
     public static double getXAdjustment() {
-        double tx = adjustmentPID.calculate(NetworkTablesUtil.getLimeLightErrorX());
+        TargetTracker tracker = getTracker();
+        if (!tracker.isValid()) {
+            adjustmentPID.reset();
+            return 0;
+        }
+        return getXAdjustment(tracker.getPredictedErrorX(frame.getTimestamp()));
+    }
+
+    /**
+     * Same as {@link #getXAdjustment()}, but corrects the error for how far the turret has actually turned since the
+     * image was taken (the LimeLight's values are tl + cl ms old) instead of predicting it, so the aim doesn't
+     * overshoot and oscillate.
+     */
+    public static double getXAdjustment(ArmSubsystem arm) {
+        TargetTracker tracker = getTracker();
+        if (!tracker.isValid()) {
+            adjustmentPID.reset();
+            return 0;
+        }
+        double turretDegrees = arm.getTurretDegreesSince(tracker.getLastMeasurementTimestamp());
+        return getXAdjustment(tracker.getErrorX() - turretDegrees * LimeLightFrame.TX_TO_PIXELS);
+    }
+
+    private static double getXAdjustment(double errorX) {
+        double tx = adjustmentPID.calculate(errorX);
         // if tx is too big, return the max of 1 or -1
         if (Math.abs(tx) > 1) {
             // return 1 if tx is greater than 1, -1 if tx is less than -1
@@ -29,7 +183,12 @@ public class LimeLight {
     }
 
     public static double getYAdjustment() {
-        double ty =  adjustmentPID2.calculate(NetworkTablesUtil.getLimeLightErrorY());
+        TargetTracker tracker = getTracker();
+        if (!tracker.isValid()) {
+            adjustmentPID2.reset();
+            return 0;
+        }
+        double ty =  adjustmentPID2.calculate(tracker.getPredictedErrorY(frame.getTimestamp()));
 
         // if ty is too big, return the max of 1 or -1
         if (Math.abs(ty) > 1) {
@@ -40,12 +199,12 @@ public class LimeLight {
     }
 
     public static float getArea() {
-        float tA = (NetworkTablesUtil.getLimeLightArea());
+        float tA = (float) frame.getArea();
         return tA;
     }
 
     public static double getAngle() {
-        float angle = (NetworkTablesUtil.getConeOrientation());
+        float angle = (float) frame.getConeOrientation();
         angle = angle > 180?angle-360:angle;
 
         // calculate the PID for the steering adjustment
@@ -53,23 +212,39 @@ public class LimeLight {
         // If cone angle measures greater than 180 (tip pointing towards right), it goes towards 360. If it measures less than 180 (tip pointing towards left), it goes towards 0. (360 and 0 both represent the cone pointing straight up)
     }
 
+    /**
+     * {@link #getAdjustmentFromError(boolean)} with the turret (z-axis) adjustment corrected for latency, see
+     * {@link #getXAdjustment(ArmSubsystem)}.
+     */
+    public static double[] getAdjustmentFromError(ArmSubsystem arm) {
+        getAdjustmentFromError(arm.getFlipped(), false);
+        adjustments[2] = getXAdjustment(arm);
+        return adjustments;
+    }
+
+    /**
+     * @return The x, y and z adjustments. The array gets reused and overwritten every call, so use the values right
+     * away and don't hold on to it.
+     */
+    public static double[] getAdjustmentFromError(boolean flipped) {
+        return getAdjustmentFromError(flipped, true);
+    }
+
     // Gets adjustments from limelight and converts them to position adjustments
     // Super messy right now, TODO: clean up later
-    public static double[] getAdjustmentFromError(boolean flipped){
-        double[] adjustments = new double[3];
-
+    private static double[] getAdjustmentFromError(boolean flipped, boolean includeXAdjustment){
         if(flipped){
     
             adjustments[0] = UltrasonicSensor.getDistanceInches(); // x-axis adjustment
     
             adjustments[1] = 0; // y-axis adjustment
     
-            adjustments[2] = getXAdjustment(); // z-axis adjustment
+            adjustments[2] = includeXAdjustment ? getXAdjustment() : 0; // z-axis adjustment
     
         }
         else{
 
-            double xAdjustment = NetworkTablesUtil.getLimeLightPipeline() == 1 ? (DESIRED_AREA_CONE - getArea()) / DESIRED_AREA_CONE : 
+            double xAdjustment = frame.isPythonPipeline() ? (DESIRED_AREA_CONE - getArea()) / DESIRED_AREA_CONE : 
                     (DESIRED_AREA_CUBE - getArea()) / DESIRED_AREA_CUBE; // z axis from perspective of the camera
             xAdjustment = xAdjustment > 1 ? 1 : xAdjustment;
     
@@ -77,7 +252,7 @@ public class LimeLight {
     
             adjustments[1] = UltrasonicSensor.getDistanceInches(); // y-axis adjustment
     
-            adjustments[2] = getXAdjustment(); // z-axis adjustment
+            adjustments[2] = includeXAdjustment ? getXAdjustment() : 0; // z-axis adjustment
     
         }
             
@@ -0,0 +1,174 @@
+package frc.robot.subsystems.staticsubsystems;
+
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.LimeLightConstants;
+import frc.robot.util.TelemetryRegistry;
+
+/**
+ * Everything the LimeLight reported, read once per loop by {@link LimeLight#update()}. Reading values from here
+ * instead of NetworkTables means every command sees the same values during a loop, and nothing does its own NT reads.
+ * <p>
+ * The frame object gets reused and overwritten every loop, so don't hold on to it across loops or use it off the main
+ * thread. Only {@link LimeLight} updates it.
+ */
+public final class LimeLightFrame {
+    // Pixel size of the python pipeline's image, and degrees to pixels for tx/ty
+    private static final double PYTHON_CENTER_X = 160.0;
+    private static final double PYTHON_CENTER_Y = 120.0;
+    static final double TX_TO_PIXELS = 5.369; // also pixels per degree horizontally
+    private static final double TY_TO_PIXELS = 5.2516;
+
+    private double timestamp;
+    private int pipeline;
+    private double tx;
+    private double ty;
+    private double ta;
+    private boolean hasTarget;
+    private double pipelineLatencyMs;
+    private double captureLatencyMs;
+    private double captureTimestamp;
+
+    private double coneOrientation;
+    private double pythonX;
+    private double pythonY;
+    private double pythonArea;
+    private long pythonLastChange = -1; // NT time the python values above were read at, see update()
+
+    LimeLightFrame() {
+    }
+
+    /**
+     * Reads every LimeLight value once.
+     */
+    void update() {
+        this.timestamp = Timer.getFPGATimestamp();
+        this.pipeline = (int) TelemetryRegistry.LIMELIGHT_GETPIPE.get();
+        this.tx = TelemetryRegistry.LIMELIGHT_TX.get();
+        this.ty = TelemetryRegistry.LIMELIGHT_TY.get();
+        this.ta = TelemetryRegistry.LIMELIGHT_TA.get();
+        this.hasTarget = TelemetryRegistry.LIMELIGHT_TV.get() >= 1;
+        this.pipelineLatencyMs = TelemetryRegistry.LIMELIGHT_TL.get();
+        this.captureLatencyMs = TelemetryRegistry.LIMELIGHT_CL.get();
+
+        // Python pipeline output: [cone orientation, x (px), y (px), area (px)], zeros for anything it didn't send.
+        // Getting an array from NT makes a new one every time, so only do it when llpython actually changed
+        long pythonChange = TelemetryRegistry.LIMELIGHT_PYTHON.getLastChange();
+        if (pythonChange != this.pythonLastChange) {
+            this.pythonLastChange = pythonChange;
+            double[] python = TelemetryRegistry.LIMELIGHT_PYTHON.get();
+            this.coneOrientation = python.length > 0 ? python[0] : 0;
+            this.pythonX = python.length > 1 ? python[1] : 0;
+            this.pythonY = python.length > 2 ? python[2] : 0;
+            this.pythonArea = python.length > 3 ? python[3] : 0;
+        }
+
+        // When the image these values came from was taken: when the values showed up on NT, minus how long the
+        // LimeLight spent capturing and processing it. NT time is FPGA time on the roboRIO.
+        this.captureTimestamp = this.lastFrameArrivalMicros() / 1e6 - (this.pipelineLatencyMs + this.captureLatencyMs) / 1000;
+    }
+
+    /**
+     * The LimeLight talks NT3, which only sends a value when it changes, so a target sitting still in the middle of
+     * the image can keep tx the same for a long time. The heartbeat changes every frame (tl almost always does too,
+     * for older firmware without hb), so the newest change of any of them is when the last frame showed up.
+     *
+     * @return NT time (microseconds) the latest frame arrived
+     */
+    private long lastFrameArrivalMicros() {
+        long arrived = Math.max(TelemetryRegistry.LIMELIGHT_HB.getLastChange(), TelemetryRegistry.LIMELIGHT_TL.getLastChange());
+        arrived = Math.max(arrived, TelemetryRegistry.LIMELIGHT_TV.getLastChange());
+        if (this.isPythonPipeline()) {
+            return Math.max(arrived, TelemetryRegistry.LIMELIGHT_PYTHON.getLastChange());
+        }
+        arrived = Math.max(arrived, TelemetryRegistry.LIMELIGHT_TX.getLastChange());
+        return Math.max(arrived, TelemetryRegistry.LIMELIGHT_TY.getLastChange());
+    }
+
+    /**
+     * @return FPGA time (seconds) when this frame was read
+     */
+    public double getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return The pipeline the LimeLight says it's running (getpipe)
+     */
+    public int getPipeline() {
+        return this.pipeline;
+    }
+
+    /**
+     * @return True if the LimeLight is running the python (cone) pipeline, whose values come from llpython
+     */
+    public boolean isPythonPipeline() {
+        return this.pipeline == LimeLightConstants.CONE_PIPELINE;
+    }
+
+    public double getTx() {
+        return this.tx;
+    }
+
+    public double getTy() {
+        return this.ty;
+    }
+
+    public double getTa() {
+        return this.ta;
+    }
+
+    public boolean hasTarget() {
+        return this.hasTarget;
+    }
+
+    /**
+     * @return Pipeline latency (tl) in ms
+     */
+    public double getPipelineLatencyMs() {
+        return this.pipelineLatencyMs;
+    }
+
+    /**
+     * @return Capture latency (cl) in ms
+     */
+    public double getCaptureLatencyMs() {
+        return this.captureLatencyMs;
+    }
+
+    /**
+     * @return FPGA time (seconds) when the image these values came from was taken
+     */
+    public double getCaptureTimestamp() {
+        return this.captureTimestamp;
+    }
+
+    /**
+     * @return Horizontal distance of the target from the center of the image in pixels, from llpython on the python
+     * pipeline and tx otherwise. This is where the target was when the image was taken.
+     */
+    public double getErrorX() {
+        return this.isPythonPipeline() ? this.pythonX - PYTHON_CENTER_X : this.tx * TX_TO_PIXELS;
+    }
+
+    /**
+     * @return Vertical distance of the target from the center of the image in pixels, from llpython on the python
+     * pipeline and ty otherwise
+     */
+    public double getErrorY() {
+        return this.isPythonPipeline() ? this.pythonY - PYTHON_CENTER_Y : this.ty * TY_TO_PIXELS;
+    }
+
+    /**
+     * @return Target area in pixels, from llpython
+     */
+    public double getArea() {
+        return this.pythonArea;
+    }
+
+    /**
+     * @return Which way the cone is pointing in degrees, from llpython
+     */
+    public double getConeOrientation() {
+        return this.coneOrientation;
+    }
+}
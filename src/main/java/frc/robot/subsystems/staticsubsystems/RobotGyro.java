@@ -2,6 +2,7 @@ package frc.robot.subsystems.staticsubsystems;
 
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj.ADIS16470_IMU;
+import edu.wpi.first.wpilibj.RobotBase;
 
 /**
  * Wrapper around gyro
@@ -23,22 +24,44 @@ public class RobotGyro {
         System.out.println("RobotGyro init");
     }
 
-    private static double angleAdjust = 0;
+    // Read by the odometry thread, written on the main thread
+    private static volatile double angleAdjust = 0;
+
+    // Set by the drivetrain sim, used instead of the IMU when simulating
+    private static final boolean simulated = RobotBase.isSimulation();
+    private static volatile double simYaw = 0;
+    private static volatile double simPitch = 0;
+    private static volatile double simYawOffset = 0;
 
     public static Rotation2d getRotation2d(){
-        return new Rotation2d(Math.toRadians(gyro.getAngle() + angleAdjust));
+        return new Rotation2d(Math.toRadians(getYaw() + angleAdjust));
     }
 
     public static double getGyroAngleDegreesYaw() {
-        return gyro.getAngle() + angleAdjust;
+        return getYaw() + angleAdjust;
     }
 
     public static double getGyroAngleDegreesRoll() {
-        return gyro.getXComplementaryAngle() + angleAdjust;
+        return (simulated ? 0 : gyro.getXComplementaryAngle()) + angleAdjust;
     }
 
     public static double getGyroAngleDegreesPitch() {
-        return gyro.getYComplementaryAngle() + angleAdjust;
+        return (simulated ? simPitch : gyro.getYComplementaryAngle()) + angleAdjust;
+    }
+
+    private static double getYaw() {
+        return simulated ? simYaw - simYawOffset : gyro.getAngle();
+    }
+
+    /**
+     * Sets what the gyro reads in simulation. Does nothing on the real robot.
+     *
+     * @param yawDegrees   Yaw, CCW positive like the real IMU
+     * @param pitchDegrees Pitch
+     */
+    public static void setSimulatedAngles(double yawDegrees, double pitchDegrees) {
+        simYaw = yawDegrees;
+        simPitch = pitchDegrees;
     }
     
 
@@ -49,6 +72,7 @@ public class RobotGyro {
     public static void resetGyroAngle() {
         gyro.reset();
         angleAdjust = 0;
+        simYawOffset = simYaw; // gyro.reset() zeroes the real IMU, this does the same for the sim
     }
 
     public static void setGyroAngle(double angle) {
@@ -0,0 +1,176 @@
+package frc.robot.subsystems.staticsubsystems;
+
+import frc.robot.Constants.LimeLightConstants;
+
+/**
+ * Smooths the LimeLight's target error for one pipeline with a constant velocity Kalman filter on each image axis.
+ * The raw values are noisy and drop to 0 whenever a frame doesn't see the target, which makes the turret jerk. The
+ * filter instead keeps its estimate (and keeps predicting it forward with the estimated rate) through dropped frames,
+ * for up to {@link LimeLightConstants#TRACK_COAST_SECONDS}, after which the track is no longer valid.
+ * <p>
+ * The estimate is for the time the last image was taken, {@link #getPredictedErrorX(double)} gives it for any other
+ * time. Only {@link LimeLight} updates trackers, once per loop, on the main thread.
+ */
+public class TargetTracker {
+    private final AxisFilter x = new AxisFilter();
+    private final AxisFilter y = new AxisFilter();
+
+    private boolean initialized = false;
+    private double lastMeasurementTimestamp;
+    private double lastUpdateTimestamp;
+
+    TargetTracker() {
+    }
+
+    /**
+     * Feeds in the latest frame. Does nothing but keep time if the frame doesn't have a new measurement of the target.
+     *
+     * @param notBefore Ignore images taken before this FPGA time (seconds), e.g. ones from the previous pipeline
+     */
+    void update(LimeLightFrame frame, double notBefore) {
+        this.lastUpdateTimestamp = frame.getTimestamp();
+
+        boolean seesTarget = frame.isPythonPipeline() ? frame.getArea() > 0 : frame.hasTarget();
+        double captureTimestamp = frame.getCaptureTimestamp();
+        if (!seesTarget || captureTimestamp < notBefore || (this.initialized && captureTimestamp <= this.lastMeasurementTimestamp)) {
+            return;
+        }
+
+        if (this.isValid()) {
+            double dt = captureTimestamp - this.lastMeasurementTimestamp;
+            this.x.predict(dt);
+            this.y.predict(dt);
+            this.x.correct(frame.getErrorX());
+            this.y.correct(frame.getErrorY());
+        } else {
+            // Lost it (or never had it), start over from this measurement instead of coasting from a stale one
+            this.x.reset(frame.getErrorX());
+            this.y.reset(frame.getErrorY());
+            this.initialized = true;
+        }
+        this.lastMeasurementTimestamp = captureTimestamp;
+    }
+
+    /**
+     * Forgets the target, the track stays invalid until it's seen again.
+     */
+    public void reset() {
+        this.initialized = false;
+    }
+
+    /**
+     * @return True if the target has been seen recently enough to trust the estimate
+     */
+    public boolean isValid() {
+        return this.initialized && this.getTimeSinceMeasurement() <= LimeLightConstants.TRACK_COAST_SECONDS;
+    }
+
+    /**
+     * @return Seconds between when the last image that saw the target was taken and the latest frame
+     */
+    public double getTimeSinceMeasurement() {
+        return this.lastUpdateTimestamp - this.lastMeasurementTimestamp;
+    }
+
+    /**
+     * @return FPGA time (seconds) of the image the estimate is for
+     */
+    public double getLastMeasurementTimestamp() {
+        return this.lastMeasurementTimestamp;
+    }
+
+    /**
+     * @return Filtered horizontal error in pixels, as of {@link #getLastMeasurementTimestamp()}
+     */
+    public double getErrorX() {
+        return this.x.position;
+    }
+
+    /**
+     * @return Filtered vertical error in pixels, as of {@link #getLastMeasurementTimestamp()}
+     */
+    public double getErrorY() {
+        return this.y.position;
+    }
+
+    /**
+     * @return How fast the horizontal error is changing, pixels per second
+     */
+    public double getErrorXRate() {
+        return this.x.velocity;
+    }
+
+    /**
+     * @return How fast the vertical error is changing, pixels per second
+     */
+    public double getErrorYRate() {
+        return this.y.velocity;
+    }
+
+    /**
+     * @param timestamp FPGA time in seconds, usually now
+     * @return Where the horizontal error is expected to be at that time if it keeps changing at the same rate
+     */
+    public double getPredictedErrorX(double timestamp) {
+        return this.x.position + this.x.velocity * (timestamp - this.lastMeasurementTimestamp);
+    }
+
+    /**
+     * @param timestamp FPGA time in seconds, usually now
+     * @return Where the vertical error is expected to be at that time if it keeps changing at the same rate
+     */
+    public double getPredictedErrorY(double timestamp) {
+        return this.y.position + this.y.velocity * (timestamp - this.lastMeasurementTimestamp);
+    }
+
+    /**
+     * Kalman filter for one axis, state is [position, velocity] and only position is measured. The covariance is
+     * symmetric so only three of its entries are stored.
+     */
+    private static final class AxisFilter {
+        private double position;
+        private double velocity;
+        private double p00;
+        private double p01;
+        private double p11;
+
+        void reset(double measurement) {
+            this.position = measurement;
+            this.velocity = 0;
+            double r = LimeLightConstants.TRACK_MEASUREMENT_STD_PIXELS;
+            double v = LimeLightConstants.TRACK_INITIAL_RATE_STD_PIXELS;
+            this.p00 = r * r;
+            this.p01 = 0;
+            this.p11 = v * v;
+        }
+
+        void predict(double dt) {
+            this.position += this.velocity * dt;
+
+            // P = F P F^T + Q, with Q from white noise acceleration
+            double q = LimeLightConstants.TRACK_ACCELERATION_STD_PIXELS;
+            q *= q;
+            double dt2 = dt * dt;
+            this.p00 += dt * 2 * this.p01 + dt2 * this.p11 + q * dt2 * dt2 / 4;
+            this.p01 += dt * this.p11 + q * dt2 * dt / 2;
+            this.p11 += q * dt2;
+        }
+
+        void correct(double measurement) {
+            double r = LimeLightConstants.TRACK_MEASUREMENT_STD_PIXELS;
+            double s = this.p00 + r * r;
+            double k0 = this.p00 / s;
+            double k1 = this.p01 / s;
+            double innovation = measurement - this.position;
+
+            this.position += k0 * innovation;
+            this.velocity += k1 * innovation;
+
+            double p00 = this.p00;
+            double p01 = this.p01;
+            this.p00 = (1 - k0) * p00;
+            this.p01 = (1 - k0) * p01;
+            this.p11 -= k1 * p01;
+        }
+    }
+}
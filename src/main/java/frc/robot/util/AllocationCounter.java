@@ -0,0 +1,84 @@
+package frc.robot.util;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * How many bytes the current thread has allocated, from the JVM's per thread allocation counter. Taking the difference
+ * around some code tells you how much garbage it made, which is what causes GC pauses (and 30-50ms loop overruns) on
+ * the roboRIO's small heap.
+ * <p>
+ * Reading the counter allocates a little by itself, that gets measured once when this class loads and subtracted by
+ * {@link #since(long)}. Not every JVM has the counter, check {@link #isSupported()} first.
+ */
+public final class AllocationCounter {
+    private AllocationCounter() {
+        throw new UnsupportedOperationException("AllocationCounter is a utility class and should not be instantiated!");
+    }
+
+    private static final ThreadMXBean BEAN = findBean();
+    private static final long OVERHEAD_BYTES = BEAN != null ? measureOverhead() : 0;
+
+    private static ThreadMXBean findBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof ThreadMXBean)) {
+                return null;
+            }
+            ThreadMXBean sunBean = (ThreadMXBean) bean;
+            if (!sunBean.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            return sunBean;
+        } catch (LinkageError | UnsupportedOperationException | SecurityException ex) {
+            // No jdk.management module (or it's locked down), so no counter
+            return null;
+        }
+    }
+
+    private static long measureOverhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 16; i++) {
+            long start = currentThreadBytes();
+            long end = currentThreadBytes();
+            overhead = Math.min(overhead, end - start);
+        }
+        return overhead;
+    }
+
+    public static boolean isSupported() {
+        return BEAN != null;
+    }
+
+    /**
+     * @return Total bytes the current thread has allocated so far, -1 if not supported
+     */
+    public static long currentThreadBytes() {
+        return BEAN != null ? BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    /**
+     * @param start What {@link #currentThreadBytes()} returned before the code being measured
+     * @return Bytes the current thread allocated since then, not counting reading the counter itself
+     */
+    public static long since(long start) {
+        return Math.max(0, currentThreadBytes() - start - OVERHEAD_BYTES);
+    }
+
+    /**
+     * Runs some code on this thread and counts how many bytes it allocated.
+     *
+     * @return Bytes allocated while the code ran, -1 if not supported
+     */
+    public static long measure(Runnable code) {
+        if (BEAN == null) {
+            code.run();
+            return -1;
+        }
+        long start = currentThreadBytes();
+        code.run();
+        return since(start);
+    }
+}
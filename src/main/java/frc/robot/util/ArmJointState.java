@@ -0,0 +1,45 @@
+package frc.robot.util;
+
+/**
+ * Mutable holder for the arm's joint angles, in RADIANS. Meant to be allocated once and reused every loop so that
+ * the kinematics code doesn't have to hand back a fresh array each call.
+ */
+public class ArmJointState {
+    public double pivot1Rad;
+    public double pivot2Rad;
+    public double turretRad;
+
+    public ArmJointState() {
+    }
+
+    public ArmJointState(double pivot1Rad, double pivot2Rad, double turretRad) {
+        this.set(pivot1Rad, pivot2Rad, turretRad);
+    }
+
+    public void set(double pivot1Rad, double pivot2Rad, double turretRad) {
+        this.pivot1Rad = pivot1Rad;
+        this.pivot2Rad = pivot2Rad;
+        this.turretRad = turretRad;
+    }
+
+    public void set(ArmJointState other) {
+        this.set(other.pivot1Rad, other.pivot2Rad, other.turretRad);
+    }
+
+    public double getPivot1Deg() {
+        return Math.toDegrees(this.pivot1Rad);
+    }
+
+    public double getPivot2Deg() {
+        return Math.toDegrees(this.pivot2Rad);
+    }
+
+    public double getTurretDeg() {
+        return Math.toDegrees(this.turretRad);
+    }
+
+    @Override
+    public String toString() {
+        return "ArmJointState(pivot1: " + getPivot1Deg() + ", pivot2: " + getPivot2Deg() + ", turret: " + getTurretDeg() + ")";
+    }
+}
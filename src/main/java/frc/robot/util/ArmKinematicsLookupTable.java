@@ -0,0 +1,324 @@
+package frc.robot.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.ArmConstants;
+
+/**
+ * An {@link ArmKinematicsSolver} that answers inverse kinematics from a precomputed grid instead of doing the full
+ * law of cosines/law of sines solve every time.
+ * <p>
+ * The grid stores (pivot1, pivot2) for both the unflipped and flipped branches at every grid point, and queries are
+ * answered with trilinear interpolation. When the table gets built, every cell is checked against the real solve, and
+ * cells that are off by more than {@link #MAX_INTERPOLATION_ERROR_RAD} (or that touch an unreachable point) are marked
+ * so that we fall back to the normal solve for them. That keeps the error bounded. The turret angle is a single atan2,
+ * so that is never interpolated (interpolating it also breaks where it wraps around behind the robot).
+ * <p>
+ * The table is generated by the {@code generateArmLookupTable} Gradle task (which runs {@link #main(String[])}) and is
+ * deployed with the rest of {@code src/main/deploy}. On the robot it gets memory mapped with {@link #load(Path)}, so
+ * robotInit doesn't have to rebuild it.
+ */
+public class ArmKinematicsLookupTable extends ArmKinematicsSolver {
+    /**
+     * Name of the table file inside the deploy directory.
+     */
+    public static final String FILE_NAME = "arm_ik_table.bin";
+
+    private static final int MAGIC = 0x41524D4B; // "ARMK"
+    private static final int VERSION = 2;
+
+    // Grid layout, in inches. Covers everything the arm can reach below the y = 75 cap in ArmSubsystem.
+    private static final double GRID_MIN_X = -58;
+    private static final double GRID_MIN_Y = -8;
+    private static final double GRID_MIN_Z = -58;
+    private static final double GRID_STEP = 2;
+    private static final int GRID_SIZE_X = 59;
+    private static final int GRID_SIZE_Y = 43;
+    private static final int GRID_SIZE_Z = 59;
+
+    /**
+     * Cells where interpolating is further off than this (in radians) fall back to the normal solve.
+     */
+    public static final double MAX_INTERPOLATION_ERROR_RAD = Math.toRadians(0.25);
+
+    private final double minX, minY, minZ, step;
+    private final int sizeX, sizeY, sizeZ;
+    private final double maxErrorRad;
+
+    // Indexed [flipped ? 1 : 0]
+    private final FloatBuffer[] angles = new FloatBuffer[2];
+    private final LongBuffer[] accurateCells = new LongBuffer[2];
+
+    private ArmKinematicsLookupTable(ByteBuffer buffer) throws IOException {
+        super();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not an arm lookup table, or an old version of one");
+        }
+        for (double constant : armConstants(this)) {
+            if (buffer.getDouble() != constant) {
+                throw new IOException("Arm lookup table was built with different ArmConstants or joint limits, rebuild it");
+            }
+        }
+        this.minX = buffer.getDouble();
+        this.minY = buffer.getDouble();
+        this.minZ = buffer.getDouble();
+        this.step = buffer.getDouble();
+        this.sizeX = buffer.getInt();
+        this.sizeY = buffer.getInt();
+        this.sizeZ = buffer.getInt();
+        this.maxErrorRad = buffer.getDouble();
+
+        int pointCount = this.sizeX * this.sizeY * this.sizeZ;
+        int cellWords = cellBitsetLength(this.sizeX, this.sizeY, this.sizeZ);
+        for (int branch = 0; branch < 2; branch++) {
+            this.angles[branch] = slice(buffer, pointCount * 2 * Float.BYTES).asFloatBuffer();
+            this.accurateCells[branch] = slice(buffer, cellWords * Long.BYTES).asLongBuffer();
+        }
+    }
+
+    /**
+     * Everything the solve depends on that isn't part of the grid. These go in the table's header, and a table whose
+     * header doesn't match gets rejected, so changing any of them means the table has to be rebuilt.
+     */
+    private static double[] armConstants(ArmKinematicsSolver solver) {
+        return new double[]{
+            solver.getLimb1Length(),
+            solver.getLimb2Length(),
+            solver.getOriginHeight(),
+            solver.getMaxReach(),
+            solver.getMinHorizontalDistance(),
+            ArmConstants.ARM_1_INITIAL_ANGLE,
+            FLIPPED_MAX_PIVOT1_RAD,
+            FLIPPED_MAX_PIVOT2_RAD,
+            UNFLIPPED_MIN_PIVOT1_RAD,
+            UNFLIPPED_MIN_PIVOT2_RAD
+        };
+    }
+
+    /**
+     * Memory maps a table built by {@link #main(String[])}. If the table is missing or doesn't match the current
+     * constants, this warns and hands back the normal solver instead, so the arm still works.
+     *
+     * @param path Path to the table file
+     * @return The lookup table, or a plain {@link ArmKinematicsSolver} if it couldn't be loaded
+     */
+    public static ArmKinematicsSolver load(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ArmKinematicsLookupTable(buffer);
+        } catch (IOException | RuntimeException ex) {
+            DriverStation.reportWarning("Unable to load arm lookup table " + path + ", using the normal IK solve: " + ex.getMessage(), false);
+            return new ArmKinematicsSolver();
+        }
+    }
+
+    @Override
+    public Status solveInverse(double x, double y, double z, boolean flipped, ArmJointState out) {
+        double gx = (x - this.minX) / this.step;
+        double gy = (y - this.minY) / this.step;
+        double gz = (z - this.minZ) / this.step;
+        int i = (int) Math.floor(gx);
+        int j = (int) Math.floor(gy);
+        int k = (int) Math.floor(gz);
+        if (i < 0 || j < 0 || k < 0 || i >= this.sizeX - 1 || j >= this.sizeY - 1 || k >= this.sizeZ - 1) {
+            return super.solveInverse(x, y, z, flipped, out);
+        }
+
+        int branch = flipped ? 1 : 0;
+        int cell = this.cellIndex(i, j, k);
+        if ((this.accurateCells[branch].get(cell >>> 6) & (1L << (cell & 63))) == 0) {
+            return super.solveInverse(x, y, z, flipped, out);
+        }
+
+        // Interpolating inside an accurate cell is only valid if the target itself is in reach
+        Status reachable = this.checkReachable(x, y, z, flipped);
+        if (!reachable.isOk()) {
+            return reachable;
+        }
+
+        double fx = gx - i, fy = gy - j, fz = gz - k;
+        FloatBuffer table = this.angles[branch];
+        out.set(
+                this.interpolate(table, i, j, k, fx, fy, fz, 0),
+                this.interpolate(table, i, j, k, fx, fy, fz, 1),
+                turretAngle(x, z));
+        return Status.OK;
+    }
+
+    /**
+     * @return The interpolation error (in radians) this table was built with
+     */
+    public double getMaxErrorRad() {
+        return this.maxErrorRad;
+    }
+
+    private double interpolate(FloatBuffer table, int i, int j, int k, double fx, double fy, double fz, int joint) {
+        double c000 = table.get(this.pointIndex(i, j, k) * 2 + joint);
+        double c100 = table.get(this.pointIndex(i + 1, j, k) * 2 + joint);
+        double c010 = table.get(this.pointIndex(i, j + 1, k) * 2 + joint);
+        double c110 = table.get(this.pointIndex(i + 1, j + 1, k) * 2 + joint);
+        double c001 = table.get(this.pointIndex(i, j, k + 1) * 2 + joint);
+        double c101 = table.get(this.pointIndex(i + 1, j, k + 1) * 2 + joint);
+        double c011 = table.get(this.pointIndex(i, j + 1, k + 1) * 2 + joint);
+        double c111 = table.get(this.pointIndex(i + 1, j + 1, k + 1) * 2 + joint);
+        return trilinear(c000, c100, c010, c110, c001, c101, c011, c111, fx, fy, fz);
+    }
+
+    private int pointIndex(int i, int j, int k) {
+        return (i * this.sizeY + j) * this.sizeZ + k;
+    }
+
+    private int cellIndex(int i, int j, int k) {
+        return (i * (this.sizeY - 1) + j) * (this.sizeZ - 1) + k;
+    }
+
+    private static double trilinear(double c000, double c100, double c010, double c110, double c001, double c101, double c011, double c111, double fx, double fy, double fz) {
+        double c00 = c000 + (c100 - c000) * fx;
+        double c10 = c010 + (c110 - c010) * fx;
+        double c01 = c001 + (c101 - c001) * fx;
+        double c11 = c011 + (c111 - c011) * fx;
+        double c0 = c00 + (c10 - c00) * fy;
+        double c1 = c01 + (c11 - c01) * fy;
+        return c0 + (c1 - c0) * fz;
+    }
+
+    private static int cellBitsetLength(int sizeX, int sizeY, int sizeZ) {
+        int cellCount = (sizeX - 1) * (sizeY - 1) * (sizeZ - 1);
+        return (cellCount + 63) / 64;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int length) {
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        buffer.position(buffer.position() + length);
+        return slice;
+    }
+
+    /**
+     * Builds the table and writes it to the given file. Run by the {@code generateArmLookupTable} Gradle task.
+     *
+     * @param args [output file path]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ArmKinematicsLookupTable <output file>");
+        }
+        Path output = Paths.get(args[0]);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+
+        ArmKinematicsSolver solver = new ArmKinematicsSolver();
+        ArmJointState solution = new ArmJointState();
+        int pointCount = GRID_SIZE_X * GRID_SIZE_Y * GRID_SIZE_Z;
+        int cellCount = (GRID_SIZE_X - 1) * (GRID_SIZE_Y - 1) * (GRID_SIZE_Z - 1);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (double constant : armConstants(solver)) {
+                out.writeDouble(constant);
+            }
+            out.writeDouble(GRID_MIN_X);
+            out.writeDouble(GRID_MIN_Y);
+            out.writeDouble(GRID_MIN_Z);
+            out.writeDouble(GRID_STEP);
+            out.writeInt(GRID_SIZE_X);
+            out.writeInt(GRID_SIZE_Y);
+            out.writeInt(GRID_SIZE_Z);
+            out.writeDouble(MAX_INTERPOLATION_ERROR_RAD);
+
+            int accurate = 0;
+            for (int branch = 0; branch < 2; branch++) {
+                boolean flipped = branch == 1;
+                float[] table = new float[pointCount * 2];
+                for (int i = 0; i < GRID_SIZE_X; i++) {
+                    for (int j = 0; j < GRID_SIZE_Y; j++) {
+                        for (int k = 0; k < GRID_SIZE_Z; k++) {
+                            int index = ((i * GRID_SIZE_Y + j) * GRID_SIZE_Z + k) * 2;
+                            if (solver.solveInverse(GRID_MIN_X + i * GRID_STEP, GRID_MIN_Y + j * GRID_STEP, GRID_MIN_Z + k * GRID_STEP, flipped, solution).isOk()) {
+                                table[index] = (float) solution.pivot1Rad;
+                                table[index + 1] = (float) solution.pivot2Rad;
+                            } else {
+                                table[index] = Float.NaN;
+                                table[index + 1] = Float.NaN;
+                            }
+                        }
+                    }
+                }
+
+                long[] accurateCells = new long[cellBitsetLength(GRID_SIZE_X, GRID_SIZE_Y, GRID_SIZE_Z)];
+                for (int i = 0; i < GRID_SIZE_X - 1; i++) {
+                    for (int j = 0; j < GRID_SIZE_Y - 1; j++) {
+                        for (int k = 0; k < GRID_SIZE_Z - 1; k++) {
+                            if (isCellAccurate(solver, solution, table, i, j, k, flipped)) {
+                                int cell = (i * (GRID_SIZE_Y - 1) + j) * (GRID_SIZE_Z - 1) + k;
+                                accurateCells[cell >>> 6] |= 1L << (cell & 63);
+                                accurate++;
+                            }
+                        }
+                    }
+                }
+
+                for (float value : table) {
+                    out.writeFloat(value);
+                }
+                for (long word : accurateCells) {
+                    out.writeLong(word);
+                }
+            }
+            System.out.println("Wrote arm lookup table to " + output + " (" + accurate + " of " + (cellCount * 2) + " cells interpolated)");
+        }
+    }
+
+    /**
+     * A cell is accurate when all 8 of its corners are reachable and interpolating matches the real solve at a 5x5x5 set
+     * of sample points inside it. The samples are held to half of {@link #MAX_INTERPOLATION_ERROR_RAD} so that the error
+     * between the samples stays under the full bound.
+     */
+    private static boolean isCellAccurate(ArmKinematicsSolver solver, ArmJointState solution, float[] table, int i, int j, int k, boolean flipped) {
+        double[] corners = new double[16];
+        for (int corner = 0; corner < 8; corner++) {
+            int ci = i + (corner & 1), cj = j + ((corner >> 1) & 1), ck = k + ((corner >> 2) & 1);
+            int index = ((ci * GRID_SIZE_Y + cj) * GRID_SIZE_Z + ck) * 2;
+            if (Float.isNaN(table[index])) {
+                return false;
+            }
+            corners[corner * 2] = table[index];
+            corners[corner * 2 + 1] = table[index + 1];
+        }
+
+        final double[] samples = {0.1, 0.3, 0.5, 0.7, 0.9};
+        for (double fx : samples) {
+            for (double fy : samples) {
+                for (double fz : samples) {
+                    double x = GRID_MIN_X + (i + fx) * GRID_STEP, y = GRID_MIN_Y + (j + fy) * GRID_STEP, z = GRID_MIN_Z + (k + fz) * GRID_STEP;
+                    if (!solver.checkReachable(x, y, z, flipped).isOk()) {
+                        continue; // never interpolated, solveInverse rejects these before looking at the table
+                    }
+                    if (!solver.solveInverse(x, y, z, flipped, solution).isOk()) {
+                        return false;
+                    }
+                    for (int joint = 0; joint < 2; joint++) {
+                        double interpolated = trilinear(corners[joint], corners[2 + joint], corners[4 + joint], corners[6 + joint],
+                                corners[8 + joint], corners[10 + joint], corners[12 + joint], corners[14 + joint], fx, fy, fz);
+                        double actual = joint == 0 ? solution.pivot1Rad : solution.pivot2Rad;
+                        if (Math.abs(interpolated - actual) > MAX_INTERPOLATION_ERROR_RAD / 2) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,213 @@
+package frc.robot.util;
+
+import frc.robot.Constants.ArmConstants;
+
+/**
+ * Allocation-free version of {@link InverseKinematicsUtil} and {@link ForwardKinematicsUtil}.
+ * <p>
+ * Everything in here is in RADIANS (coordinates are still in inches). Results are written into caller-owned objects,
+ * and failures are reported with a {@link Status} rather than a NaN triple, so this is safe to call every loop.
+ */
+public class ArmKinematicsSolver {
+    /**
+     * Result of an inverse kinematics solve.
+     */
+    public enum Status {
+        /** The output was written and can be used. */
+        OK,
+        /** Flipped: the target is too close to the turret's vertical axis. */
+        TOO_CLOSE_TO_TURRET,
+        /** Not flipped: the target is closer to the first limb than the second limb can reach. */
+        TOO_CLOSE_TO_LIMB1,
+        /** The target is further away than the two limbs can reach. */
+        OUT_OF_REACH,
+        /** The math came out as NaN (ex. the target is exactly on the first pivot). */
+        NO_SOLUTION;
+
+        public boolean isOk() {
+            return this == OK;
+        }
+    }
+
+    private static final double TWO_PI = 2 * Math.PI;
+
+    // Same joint limits that InverseKinematicsUtil uses, just in radians. ArmKinematicsLookupTable checks these too.
+    static final double FLIPPED_MAX_PIVOT1_RAD = Math.toRadians(350);
+    static final double FLIPPED_MAX_PIVOT2_RAD = Math.toRadians(345);
+    static final double UNFLIPPED_MIN_PIVOT1_RAD = Math.toRadians(10);
+    static final double UNFLIPPED_MIN_PIVOT2_RAD = Math.toRadians(15);
+
+    private final double limb1Length;
+    private final double limb2Length;
+    private final double originHeight;
+    private final double maxReach;
+    private final double minHorizontalDistance;
+
+    // Precomputed so the solve doesn't have to redo them
+    private final double limbLengthsSquaredSum;
+    private final double twoLimbLengthsProduct;
+    private final double initialPivotVerticalOffset;
+    private final double initialPivotHorizontalOffset;
+
+    public ArmKinematicsSolver() {
+        this(ArmConstants.LIMB1_LENGTH, ArmConstants.LIMB2_LENGTH, ArmConstants.ORIGIN_HEIGHT,
+                ArmConstants.LIMB1_LENGTH + ArmConstants.LIMB2_LENGTH - ArmConstants.MAX_REACH_REDUCTION, ArmConstants.MIN_HOR_DISTANCE);
+    }
+
+    public ArmKinematicsSolver(double limb1Length, double limb2Length, double originHeight, double maxReach, double minHorizontalDistance) {
+        this.limb1Length = limb1Length;
+        this.limb2Length = limb2Length;
+        this.originHeight = originHeight;
+        this.maxReach = maxReach;
+        this.minHorizontalDistance = minHorizontalDistance;
+
+        this.limbLengthsSquaredSum = limb1Length * limb1Length + limb2Length * limb2Length;
+        this.twoLimbLengthsProduct = 2 * limb1Length * limb2Length;
+        this.initialPivotVerticalOffset = Math.cos(Math.toRadians(ArmConstants.ARM_1_INITIAL_ANGLE)) * limb1Length;
+        this.initialPivotHorizontalOffset = Math.sin(Math.toRadians(ArmConstants.ARM_1_INITIAL_ANGLE)) * limb1Length;
+    }
+
+    /**
+     * Calculate arm angles relative to the limb that each one is attached to. Same math as
+     * {@link InverseKinematicsUtil#getAnglesFromCoordinates(double, double, double, boolean)}.
+     *
+     * @param x       X coordinate
+     * @param y       Y coordinate (height above the ground)
+     * @param z       Z coordinate
+     * @param flipped Whether the arm should approach from above rather than from the side (true for above, false for side)
+     * @param out     Where the angles get written. Only touched if the result is {@link Status#OK}.
+     * @return {@link Status#OK} if a solution was written to out, otherwise the reason why not
+     */
+    public Status solveInverse(double x, double y, double z, boolean flipped, ArmJointState out) {
+        Status reachable = this.checkReachable(x, y, z, flipped);
+        if (!reachable.isOk()) {
+            return reachable;
+        }
+
+        double adjustedY = y - this.originHeight;
+        double dist3dSquared = x * x + adjustedY * adjustedY + z * z;
+        double dist3d = Math.sqrt(dist3dSquared); // distance in 3d from top pivot point
+
+        // pivot2 is the angle between the 1st arm segment and the 2nd arm segment (law of cosines)
+        double pivot2 = Math.acos((this.limbLengthsSquaredSum - dist3dSquared) / this.twoLimbLengthsProduct);
+        // pivot1 is the angle between the vertical and the 1st arm segment (angle to target minus law of sines)
+        double pivot1 = Math.acos(-adjustedY / dist3d) - Math.asin(this.limb2Length * Math.sin(pivot2) / dist3d);
+
+        if (flipped) {
+            double lineAngle = Math.atan2(x, -adjustedY);
+            if (lineAngle < 0) {
+                lineAngle += TWO_PI;
+            }
+            pivot1 = lineAngle * 2 - pivot1;
+            pivot2 = TWO_PI - pivot2;
+            if (pivot1 > FLIPPED_MAX_PIVOT1_RAD) {
+                pivot1 = FLIPPED_MAX_PIVOT1_RAD;
+            }
+            if (pivot2 > FLIPPED_MAX_PIVOT2_RAD) {
+                pivot2 = FLIPPED_MAX_PIVOT2_RAD;
+            }
+        } else {
+            if (pivot1 < UNFLIPPED_MIN_PIVOT1_RAD) {
+                pivot1 = UNFLIPPED_MIN_PIVOT1_RAD;
+            }
+            if (pivot2 < UNFLIPPED_MIN_PIVOT2_RAD) {
+                pivot2 = UNFLIPPED_MIN_PIVOT2_RAD;
+            }
+        }
+
+        double turretAngle = turretAngle(x, z);
+
+        if (Double.isNaN(pivot1) || Double.isNaN(pivot2) || Double.isNaN(turretAngle)) {
+            return Status.NO_SOLUTION;
+        }
+
+        out.set(pivot1, pivot2, turretAngle);
+        return Status.OK;
+    }
+
+    /**
+     * The cheap (no trig) half of {@link #solveInverse(double, double, double, boolean, ArmJointState)}: only checks whether the target can be reached.
+     *
+     * @return {@link Status#OK} if the target is in reach, otherwise the reason why not
+     */
+    public Status checkReachable(double x, double y, double z, boolean flipped) {
+        double horizontalDistance = Math.sqrt(x * x + z * z);
+
+        if (flipped) {
+            if (horizontalDistance < this.minHorizontalDistance) {
+                return Status.TOO_CLOSE_TO_TURRET;
+            }
+        } else {
+            // sin/cos of the turret angle without calling the trig functions. atan2(0, 0) is 0, so that's the fallback.
+            double turretSin = horizontalDistance == 0 ? 0 : z / horizontalDistance;
+            double turretCos = horizontalDistance == 0 ? 1 : x / horizontalDistance;
+            double dx = x - turretSin * this.initialPivotHorizontalOffset;
+            double dy = y - (this.originHeight - this.initialPivotVerticalOffset);
+            double dz = z - turretCos * this.initialPivotHorizontalOffset;
+            if (dx * dx + dy * dy + dz * dz < this.limb2Length * this.limb2Length) { // Makes sure the arm isn't unrealistically close to the base arm segment
+                return Status.TOO_CLOSE_TO_LIMB1;
+            }
+        }
+
+        double adjustedY = y - this.originHeight;
+        if (x * x + adjustedY * adjustedY + z * z > this.maxReach * this.maxReach) {
+            return Status.OUT_OF_REACH;
+        }
+        return Status.OK;
+    }
+
+    /**
+     * The turret angle for a target, in radians. atan2 already gives us [-pi, pi], the old code just maps -pi over to pi.
+     */
+    protected static double turretAngle(double x, double z) {
+        double turretAngle = Math.atan2(z, x);
+        if (turretAngle <= -Math.PI) {
+            turretAngle += TWO_PI;
+        }
+        return turretAngle;
+    }
+
+    public double getLimb1Length() {
+        return this.limb1Length;
+    }
+
+    public double getLimb2Length() {
+        return this.limb2Length;
+    }
+
+    public double getOriginHeight() {
+        return this.originHeight;
+    }
+
+    public double getMaxReach() {
+        return this.maxReach;
+    }
+
+    public double getMinHorizontalDistance() {
+        return this.minHorizontalDistance;
+    }
+
+    /**
+     * Given the angles of the limbs and the turret, find the coordinates. Same math as
+     * {@link ForwardKinematicsUtil#getCoordinatesFromAngles(double, double, double)}.
+     *
+     * @param pivot1Rad First limb's angle in radians
+     * @param pivot2Rad Second limb's angle in radians
+     * @param turretRad Turret's angle in radians
+     * @param out       Array of at least length 3 that the coordinates [x, y, z] get written to
+     */
+    public void solveForward(double pivot1Rad, double pivot2Rad, double turretRad, double[] out) {
+        double limb2Angle = pivot2Rad - pivot1Rad;
+        double extendedDist = this.limb1Length * Math.sin(pivot1Rad) + this.limb2Length * Math.sin(limb2Angle);
+        out[0] = Math.cos(turretRad) * extendedDist;
+        out[1] = -this.limb1Length * Math.cos(pivot1Rad) + this.limb2Length * Math.cos(limb2Angle) + this.originHeight;
+        out[2] = Math.sin(turretRad) * extendedDist;
+    }
+
+    /**
+     * @see #solveForward(double, double, double, double[])
+     */
+    public void solveForward(ArmJointState angles, double[] out) {
+        this.solveForward(angles.pivot1Rad, angles.pivot2Rad, angles.turretRad, out);
+    }
+}
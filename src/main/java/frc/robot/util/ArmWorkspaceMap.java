@@ -0,0 +1,215 @@
+package frc.robot.util;
+
+import java.util.BitSet;
+
+/**
+ * Voxel map of everywhere the arm can reach, one for each flip state.
+ * <p>
+ * The space around the first pivot is split into cubes of {@code voxelSize} inches, and a voxel is marked reachable
+ * if its center passes {@link ArmKinematicsSolver#checkReachable}. Checking a target is then a single bit lookup, and
+ * an unreachable target can be pulled back to the closest reachable spot (see {@link #projectToReachable}) instead of
+ * being thrown away.
+ * <p>
+ * Voxel centers sit on multiples of {@code voxelSize} away from the first pivot, so z = 0 is always a row of centers
+ * (which is what the 2D control mode uses).
+ */
+public class ArmWorkspaceMap {
+    // How many times to halve the gap between the closest reachable voxel and the target when projecting
+    private static final int PROJECTION_ITERATIONS = 8;
+
+    private final ArmKinematicsSolver solver;
+    private final double voxelSize;
+    private final int maxSearchRadius;
+
+    // Voxel (0, 0, 0) is centered at (-halfSizeXZ, -halfSizeY, -halfSizeXZ) * voxelSize relative to the first pivot
+    private final int halfSizeXZ;
+    private final int halfSizeY;
+    private final int sizeXZ;
+    private final int sizeY;
+
+    // Indexed [flipped ? 1 : 0]
+    private final BitSet[] reachable = new BitSet[2];
+
+    /**
+     * Builds the maps. This checks every voxel center (no trig, but still a couple hundred thousand of them), so do it
+     * once at startup.
+     *
+     * @param solver          Solver used to decide what is reachable, also used to double check projected targets
+     * @param voxelSize       Side length of a voxel in inches
+     * @param maxSearchRadius How many voxels out to look for a reachable voxel before giving up on a target
+     */
+    public ArmWorkspaceMap(ArmKinematicsSolver solver, double voxelSize, int maxSearchRadius) {
+        this.solver = solver;
+        this.voxelSize = voxelSize;
+        this.maxSearchRadius = maxSearchRadius;
+
+        // Add a voxel of padding so that the edge of the reach still has unreachable voxels around it
+        this.halfSizeXZ = (int) Math.ceil(solver.getMaxReach() / voxelSize) + 1;
+        this.halfSizeY = this.halfSizeXZ;
+        this.sizeXZ = this.halfSizeXZ * 2 + 1;
+        this.sizeY = this.halfSizeY * 2 + 1;
+
+        for (int flip = 0; flip < 2; flip++) {
+            BitSet map = new BitSet(this.sizeXZ * this.sizeY * this.sizeXZ);
+            for (int ix = 0; ix < this.sizeXZ; ix++) {
+                for (int iy = 0; iy < this.sizeY; iy++) {
+                    for (int iz = 0; iz < this.sizeXZ; iz++) {
+                        if (solver.checkReachable(this.centerX(ix), this.centerY(iy), this.centerZ(iz), flip == 1).isOk()) {
+                            map.set(this.index(ix, iy, iz));
+                        }
+                    }
+                }
+            }
+            this.reachable[flip] = map;
+        }
+    }
+
+    /**
+     * O(1) check of whether the voxel containing a target is reachable. This is only as accurate as the voxel size,
+     * right at the edge of the reach use the solver to be sure.
+     *
+     * @param x       X coordinate
+     * @param y       Y coordinate (height above the ground)
+     * @param z       Z coordinate
+     * @param flipped Which flip state to check
+     * @return True if the voxel's center is reachable
+     */
+    public boolean isReachable(double x, double y, double z, boolean flipped) {
+        int ix = this.toIndexXZ(x);
+        int iy = this.toIndexY(y);
+        int iz = this.toIndexXZ(z);
+        if (ix < 0 || ix >= this.sizeXZ || iy < 0 || iy >= this.sizeY || iz < 0 || iz >= this.sizeXZ) {
+            return false;
+        }
+        return this.reachable[flipped ? 1 : 0].get(this.index(ix, iy, iz));
+    }
+
+    /**
+     * Moves a target to somewhere the arm can reach. Reachable targets are left alone. Otherwise we find the closest
+     * reachable voxel center and then walk from it back towards the target as far as the solver allows, so the arm
+     * ends up pressed against the edge of its reach instead of snapping to the voxel grid.
+     *
+     * @param x       X coordinate
+     * @param y       Y coordinate (height above the ground)
+     * @param z       Z coordinate
+     * @param flipped Which flip state to use
+     * @param lockZ   Only look for voxels with the same z as the target (for the 2D control mode)
+     * @param out     Array of at least length 3 that the projected [x, y, z] gets written to
+     * @return False if nothing reachable is within the search radius, in which case out is not touched
+     */
+    public boolean projectToReachable(double x, double y, double z, boolean flipped, boolean lockZ, double[] out) {
+        if (this.isReachable(x, y, z, flipped) && this.solver.checkReachable(x, y, z, flipped).isOk()) {
+            out[0] = x;
+            out[1] = y;
+            out[2] = z;
+            return true;
+        }
+
+        BitSet map = this.reachable[flipped ? 1 : 0];
+        int targetIx = this.toIndexXZ(x);
+        int targetIy = this.toIndexY(y);
+        int targetIz = this.toIndexXZ(z);
+
+        int bestIndex = -1;
+        double bestDistSquared = Double.POSITIVE_INFINITY;
+        for (int r = 0; r <= this.maxSearchRadius; r++) {
+            // Everything in this shell is at least (r - 1) voxels away, so once that's further than the best we're done
+            double shellMinDist = (r - 1) * this.voxelSize;
+            if (bestIndex != -1 && shellMinDist > 0 && shellMinDist * shellMinDist > bestDistSquared) {
+                break;
+            }
+            int zRadius = lockZ ? 0 : r;
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dy = -r; dy <= r; dy++) {
+                    for (int dz = -zRadius; dz <= zRadius; dz++) {
+                        // Only the outside of the cube, the inside was checked by the smaller shells
+                        if (Math.abs(dx) != r && Math.abs(dy) != r && Math.abs(dz) != r) {
+                            continue;
+                        }
+                        int ix = targetIx + dx;
+                        int iy = targetIy + dy;
+                        int iz = targetIz + dz;
+                        if (ix < 0 || ix >= this.sizeXZ || iy < 0 || iy >= this.sizeY || iz < 0 || iz >= this.sizeXZ) {
+                            continue;
+                        }
+                        int index = this.index(ix, iy, iz);
+                        if (!map.get(index)) {
+                            continue;
+                        }
+                        double ex = this.centerX(ix) - x;
+                        double ey = this.centerY(iy) - y;
+                        double ez = lockZ ? 0 : this.centerZ(iz) - z;
+                        double distSquared = ex * ex + ey * ey + ez * ez;
+                        if (distSquared < bestDistSquared) {
+                            bestDistSquared = distSquared;
+                            bestIndex = index;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bestIndex == -1) {
+            return false;
+        }
+
+        int iz = bestIndex % this.sizeXZ;
+        int iy = (bestIndex / this.sizeXZ) % this.sizeY;
+        int ix = bestIndex / (this.sizeXZ * this.sizeY);
+        double reachableX = this.centerX(ix);
+        double reachableY = this.centerY(iy);
+        double reachableZ = lockZ ? z : this.centerZ(iz);
+
+        // Binary search along the line from the voxel center (reachable) to the target (not reachable)
+        double lo = 0;
+        double hi = 1;
+        for (int i = 0; i < PROJECTION_ITERATIONS; i++) {
+            double mid = (lo + hi) / 2;
+            if (this.solver.checkReachable(reachableX + (x - reachableX) * mid, reachableY + (y - reachableY) * mid, reachableZ + (z - reachableZ) * mid, flipped).isOk()) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+
+        out[0] = reachableX + (x - reachableX) * lo;
+        out[1] = reachableY + (y - reachableY) * lo;
+        out[2] = reachableZ + (z - reachableZ) * lo;
+        return true;
+    }
+
+    public double getVoxelSize() {
+        return this.voxelSize;
+    }
+
+    /**
+     * @return How many voxels are reachable in the given flip state
+     */
+    public int getReachableVoxelCount(boolean flipped) {
+        return this.reachable[flipped ? 1 : 0].cardinality();
+    }
+
+    private int index(int ix, int iy, int iz) {
+        return (ix * this.sizeY + iy) * this.sizeXZ + iz;
+    }
+
+    private int toIndexXZ(double coord) {
+        return (int) Math.round(coord / this.voxelSize) + this.halfSizeXZ;
+    }
+
+    private int toIndexY(double y) {
+        return (int) Math.round((y - this.solver.getOriginHeight()) / this.voxelSize) + this.halfSizeY;
+    }
+
+    private double centerX(int ix) {
+        return (ix - this.halfSizeXZ) * this.voxelSize;
+    }
+
+    private double centerY(int iy) {
+        return (iy - this.halfSizeY) * this.voxelSize + this.solver.getOriginHeight();
+    }
+
+    private double centerZ(int iz) {
+        return (iz - this.halfSizeXZ) * this.voxelSize;
+    }
+}
@@ -1,51 +1,183 @@
 package frc.robot.util;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.ArrayList;
 
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.math.trajectory.TrajectoryUtil;
+import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.DriveTrainSubsystem;
 
+/**
+ * A PathWeaver path and the command to follow it.
+ * <p>
+ * {@link #initializeAll} starts loading every path in the background (a couple at a time, the roboRIO only has two
+ * cores) and returns right away. The commands from {@link #get()} don't need the trajectory until they're scheduled,
+ * and only wait for it then if it still isn't loaded. How long each path took to load goes to the console and to
+ * NetworkTables under trajectories/&lt;path&gt;/loadMs (plus trajectories/allLoadedMs for the whole batch).
+ */
 public class CommandGenerator {
 
     private static ArrayList<CommandGenerator> instances = new ArrayList<CommandGenerator>();
 
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "TrajectoryLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final NetworkTable TABLE = NetworkTablesUtil.getTable("trajectories");
+
     private Path path;
-    private Trajectory trajectory; 
-    private Supplier<Command> commandGenerator;
+    private DriveTrainSubsystem driveTrain;
+    private CompletableFuture<Trajectory> trajectory;
+    private volatile double loadTimeMillis = Double.NaN;
 
     public static void initializeAll(DriveTrainSubsystem driveTrain)
     {
-        for (CommandGenerator instance : instances) {
+        long start = System.nanoTime();
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[instances.size()];
+        for (int i = 0; i < loads.length; i++) {
+            CommandGenerator instance = instances.get(i);
             instance.initialize(driveTrain);
+            loads[i] = instance.trajectory;
         }
+        CompletableFuture.allOf(loads).whenComplete((ignored, ex) -> {
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.out.println("Loaded " + loads.length + " trajectories in " + millis + " ms");
+            TABLE.getDoubleTopic("allLoadedMs").publish().set(millis);
+        });
     }
 
-    public CommandGenerator(String path) 
+    public CommandGenerator(String path)
     {
         this.path = Filesystem.getDeployDirectory().toPath().resolve(path);
         instances.add(this);
     }
 
+    /**
+     * Starts loading the trajectory in the background.
+     */
     public void initialize(DriveTrainSubsystem driveTrain)
     {
+        this.driveTrain = driveTrain;
+        this.trajectory = CompletableFuture.supplyAsync(this::timedLoad, LOADER);
+    }
+
+    private Trajectory timedLoad() {
+        Object loadEvent = RobotEvents.beginTrajectoryLoad();
+        long start = System.nanoTime();
+        Trajectory loaded = loadTrajectory(this.path);
+        this.loadTimeMillis = (System.nanoTime() - start) / 1e6;
+
+        String name = this.path.getFileName().toString().replace(TrajectoryBinaryFile.JSON_EXTENSION, "");
+        RobotEvents.endTrajectoryLoad(loadEvent, name, loaded != null ? loaded.getStates().size() : 0);
+        System.out.println("Loaded trajectory " + name + " in " + this.loadTimeMillis + " ms");
+        TABLE.getDoubleTopic(name + "/loadMs").publish().set(this.loadTimeMillis);
+        return loaded;
+    }
+
+    /**
+     * Loads the precompiled binary version of a path if there is one (see {@link TrajectoryBinaryFile}), otherwise
+     * parses the JSON.
+     */
+    private static Trajectory loadTrajectory(Path jsonPath) {
+        Path binaryPath = TrajectoryBinaryFile.binaryPathFor(jsonPath);
+        if (Files.exists(binaryPath)) {
+            try {
+                return TrajectoryBinaryFile.read(binaryPath, jsonPath);
+            } catch (IOException ex) {
+                DriverStation.reportWarning("Unable to load " + binaryPath.getFileName() + ", parsing the JSON instead: " + ex.getMessage(), false);
+            }
+        }
         try {
-            this.trajectory = TrajectoryUtil.fromPathweaverJson(this.path);
+            return TrajectoryUtil.fromPathweaverJson(jsonPath);
         } catch (IOException ex) {
-            DriverStation.reportError("Unable to open trajectory: " + path, ex.getStackTrace());
+            DriverStation.reportError("Unable to open trajectory: " + jsonPath, ex.getStackTrace());
+            return null;
         }
-        this.commandGenerator = () -> driveTrain.generateRamseteCommand(this.trajectory);
     }
 
+    /**
+     * @return The trajectory, waiting for it to load if it hasn't yet. Null if it couldn't be loaded.
+     */
+    public Trajectory getTrajectory() {
+        return this.trajectory.join();
+    }
+
+    /**
+     * @return True once the trajectory is loaded (or failed to load)
+     */
+    public boolean isLoaded() {
+        return this.trajectory != null && this.trajectory.isDone();
+    }
+
+    /**
+     * @return How long loading took in milliseconds, NaN if it isn't done yet
+     */
+    public double getLoadTimeMillis() {
+        return this.loadTimeMillis;
+    }
+
+    /**
+     * @return A new command that follows the trajectory. The follow command itself is only built when this gets
+     * scheduled, so this is safe to call before the trajectory has loaded.
+     */
     public Command get()
     {
-        return this.commandGenerator.get();
-    } 
-    
+        return new FollowLoadedTrajectoryCommand(this);
+    }
+
+    /**
+     * Waits for the trajectory (if it still needs to), then runs the drivetrain's ramsete command for it.
+     */
+    private static class FollowLoadedTrajectoryCommand extends CommandBase {
+        private final CommandGenerator generator;
+        private Command follow;
+
+        private FollowLoadedTrajectoryCommand(CommandGenerator generator) {
+            this.generator = generator;
+            addRequirements(generator.driveTrain);
+        }
+
+        @Override
+        public void initialize() {
+            Trajectory trajectory = this.generator.getTrajectory();
+            if (trajectory == null) {
+                DriverStation.reportError("Skipping path " + this.generator.path.getFileName() + ", it failed to load", false);
+                this.follow = null;
+                return;
+            }
+            this.follow = this.generator.driveTrain.generateRamseteCommand(trajectory);
+            this.follow.initialize();
+        }
+
+        @Override
+        public void execute() {
+            if (this.follow != null) {
+                this.follow.execute();
+            }
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            if (this.follow != null) {
+                this.follow.end(interrupted);
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return this.follow == null || this.follow.isFinished();
+        }
+    }
+
 }
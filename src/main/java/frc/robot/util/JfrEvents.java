@@ -0,0 +1,144 @@
+package frc.robot.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The actual JFR event types. Only {@link RobotEvents} touches this class, and only once it knows jdk.jfr is there, so
+ * a JVM without JFR never loads it.
+ */
+final class JfrEvents {
+    private JfrEvents() {
+        throw new UnsupportedOperationException("JfrEvents is a utility class and should not be instantiated!");
+    }
+
+    // Only used from the main thread
+    private static LoopEvent loop;
+
+    static void beginLoop() {
+        loop = new LoopEvent();
+        loop.begin();
+    }
+
+    static void endLoop() {
+        if (loop != null) {
+            loop.commit();
+            loop = null;
+        }
+    }
+
+    static void command(String command, String phase) {
+        CommandEvent event = new CommandEvent();
+        event.command = command;
+        event.phase = phase;
+        event.commit();
+    }
+
+    static Object beginIkSolve() {
+        IkSolveEvent event = new IkSolveEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endIkSolve(Object token, double x, double y, double z, boolean flipped, String status) {
+        IkSolveEvent event = (IkSolveEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.x = x;
+            event.y = y;
+            event.z = z;
+            event.flipped = flipped;
+            event.status = status;
+            event.commit();
+        }
+    }
+
+    static Object beginTrajectoryLoad() {
+        TrajectoryLoadEvent event = new TrajectoryLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endTrajectoryLoad(Object token, String trajectory, int states) {
+        TrajectoryLoadEvent event = (TrajectoryLoadEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.trajectory = trajectory;
+            event.states = states;
+            event.commit();
+        }
+    }
+
+    static Object beginCanRead() {
+        CanReadEvent event = new CanReadEvent();
+        event.begin();
+        return event;
+    }
+
+    static void endCanRead(Object token, String device) {
+        CanReadEvent event = (CanReadEvent) token;
+        event.end();
+        if (event.shouldCommit()) {
+            event.device = device;
+            event.commit();
+        }
+    }
+
+    @Name("frc.robot.Loop")
+    @Label("Robot Loop")
+    @Category({"FRC", "Robot"})
+    @StackTrace(false)
+    static final class LoopEvent extends Event {
+    }
+
+    @Name("frc.robot.Command")
+    @Label("Command")
+    @Category({"FRC", "Commands"})
+    @StackTrace(false)
+    static final class CommandEvent extends Event {
+        @Label("Command")
+        String command;
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("frc.robot.IkSolve")
+    @Label("Arm IK Solve")
+    @Category({"FRC", "Arm"})
+    @StackTrace(false)
+    static final class IkSolveEvent extends Event {
+        @Label("X (in)")
+        double x;
+        @Label("Y (in)")
+        double y;
+        @Label("Z (in)")
+        double z;
+        @Label("Flipped")
+        boolean flipped;
+        @Label("Status")
+        String status;
+    }
+
+    @Name("frc.robot.TrajectoryLoad")
+    @Label("Trajectory Load")
+    @Category({"FRC", "Trajectories"})
+    @StackTrace(false)
+    static final class TrajectoryLoadEvent extends Event {
+        @Label("Trajectory")
+        String trajectory;
+        @Label("States")
+        int states;
+    }
+
+    @Name("frc.robot.CanRead")
+    @Label("CAN Sensor Read")
+    @Category({"FRC", "CAN"})
+    @StackTrace(false)
+    static final class CanReadEvent extends Event {
+        @Label("Device")
+        String device;
+    }
+}
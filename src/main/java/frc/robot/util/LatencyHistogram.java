@@ -0,0 +1,88 @@
+package frc.robot.util;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds with log scale buckets, 4 per power of 2 (so each bucket is at most ~25% wide),
+ * covering anything that fits in a long. Recording is just a couple of bit operations and an array increment, it
+ * never allocates.
+ * <p>
+ * Percentiles come back as the upper edge of the bucket they fall in, so they're slightly pessimistic. The max is
+ * exact. Not thread safe.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long maxNanos = 0;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        this.counts[bucketIndex(nanos)]++;
+        this.count++;
+        if (nanos > this.maxNanos) {
+            this.maxNanos = nanos;
+        }
+    }
+
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.maxNanos = 0;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * @param percentile Between 0 and 1, e.g. 0.99 for p99
+     * @return Upper edge of the bucket the percentile falls in (never more than the max), 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile * this.count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= target) {
+                return Math.min(bucketUpperEdge(i), this.maxNanos);
+            }
+        }
+        return this.maxNanos;
+    }
+
+    private static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        // Which power of 2 it's in, then the next SUB_BUCKET_BITS bits after the leading one pick the sub bucket
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperEdge(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        if (exponent == 62 && subBucket == SUB_BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,252 @@
+package frc.robot.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Times the pieces of the robot loop so we can tell which one is making it overrun.
+ * <p>
+ * Each piece is a {@link Section}: call {@link Section#start()} and {@link Section#stop()} around it and the time goes
+ * into a {@link LatencyHistogram}. Subsystems that extend {@link frc.robot.subsystems.ProfiledSubsystem} get their
+ * periodic() timed without doing anything. Commands are timed automatically once {@link #install(CommandScheduler)}
+ * is called, the scheduler doesn't let us see when a command's execute() starts, so each command gets the time since
+ * whatever was timed last, which also includes button polling (for the first command) and the previous command's
+ * isFinished().
+ * <p>
+ * Sections can also count how many bytes they allocate (see {@link AllocationCounter}), to find what's making the
+ * garbage behind GC pauses. That's off by default since reading the counter isn't free, turn it on with
+ * {@code -Drobot.allocations=true} or by setting {@code profiler/trackAllocations} in NetworkTables.
+ * <p>
+ * Once a second every section publishes [p50, p99, max, count, average bytes, max bytes] (times in ms, bytes are 0
+ * when allocation tracking is off) for the last second to {@code profiler/<section name>} and starts over. Each section
+ * also keeps a running total since the last {@link #reset()}, for tools like the auto simulation that want totals
+ * over a whole run. Timing never allocates, the only allocation is creating a section the first time its name is
+ * seen. Main thread only.
+ */
+public final class LoopProfiler {
+    private LoopProfiler() {
+        throw new UnsupportedOperationException("LoopProfiler is a utility class and should not be instantiated!");
+    }
+
+    private static final double PUBLISH_PERIOD_SECONDS = 1;
+    private static final String COMMAND_PREFIX = "commands/";
+    public static final String ALLOCATIONS_PROPERTY = "robot.allocations";
+
+    private static final List<Section> sections = new ArrayList<>();
+    private static final Map<String, Section> commandSections = new HashMap<>();
+    private static final Section loop = section("robotPeriodic");
+
+    // When the last timed thing finished, commands are timed from here
+    private static long lastMarkNanos = System.nanoTime();
+    private static long lastMarkBytes = 0;
+    private static double lastPublishTimestamp = 0;
+
+    private static boolean trackAllocations = false;
+
+    static {
+        setAllocationTracking(Boolean.getBoolean(ALLOCATIONS_PROPERTY));
+    }
+
+    /**
+     * @param name Name to publish the times under, should be unique
+     * @return A new section, keep it around (e.g. in a static final field) rather than calling this every loop
+     */
+    public static Section section(String name) {
+        Section section = new Section(name);
+        sections.add(section);
+        return section;
+    }
+
+    /**
+     * Starts timing each command's execute().
+     */
+    public static void install(CommandScheduler scheduler) {
+        scheduler.onCommandExecute(LoopProfiler::commandExecuted);
+    }
+
+    /**
+     * Turns allocation tracking on or off. Stays off if the JVM can't count allocations.
+     */
+    public static void setAllocationTracking(boolean enable) {
+        boolean supported;
+        try {
+            supported = AllocationCounter.isSupported();
+        } catch (LinkageError ex) {
+            supported = false;
+        }
+        trackAllocations = enable && supported;
+        lastMarkBytes = trackAllocations ? AllocationCounter.currentThreadBytes() : 0;
+    }
+
+    public static boolean isTrackingAllocations() {
+        return trackAllocations;
+    }
+
+    /**
+     * Call at the very start of robotPeriodic().
+     */
+    public static void startLoop() {
+        boolean requested = TelemetryRegistry.TRACK_ALLOCATIONS.get(trackAllocations);
+        if (requested != trackAllocations) {
+            setAllocationTracking(requested);
+        }
+        loop.start();
+    }
+
+    /**
+     * Call at the very end of robotPeriodic(), publishes the results once a second.
+     */
+    public static void endLoop() {
+        loop.stop();
+
+        double now = Timer.getFPGATimestamp();
+        if (now - lastPublishTimestamp < PUBLISH_PERIOD_SECONDS) {
+            return;
+        }
+        lastPublishTimestamp = now;
+        for (int i = 0; i < sections.size(); i++) {
+            sections.get(i).publish();
+        }
+    }
+
+    /**
+     * Clears every section (including the running totals), so the numbers after this only cover what runs from now on.
+     */
+    public static void reset() {
+        for (int i = 0; i < sections.size(); i++) {
+            sections.get(i).reset();
+        }
+        lastMarkNanos = System.nanoTime();
+        lastMarkBytes = trackAllocations ? AllocationCounter.currentThreadBytes() : 0;
+    }
+
+    /**
+     * @return Each command's section by command name, for every command that has run so far
+     */
+    public static Map<String, Section> getCommandSections() {
+        return Collections.unmodifiableMap(commandSections);
+    }
+
+    private static void commandExecuted(Command command) {
+        long now = System.nanoTime();
+        // getName() doesn't allocate, and the map lookup with a String doesn't either
+        Section section = commandSections.get(command.getName());
+        if (section == null) {
+            section = section(COMMAND_PREFIX + command.getName());
+            commandSections.put(command.getName(), section);
+        }
+        section.record(now - lastMarkNanos);
+        lastMarkNanos = now;
+        if (trackAllocations) {
+            section.recordAllocation(AllocationCounter.since(lastMarkBytes));
+            lastMarkBytes = AllocationCounter.currentThreadBytes();
+        }
+    }
+
+    /**
+     * One timed piece of the loop.
+     */
+    public static final class Section {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final DoubleArrayPublisher publisher;
+        private final double[] published = new double[6];
+        private long startNanos;
+        private long startBytes;
+
+        // Bytes allocated since the last publish
+        private long allocatedTotal = 0;
+        private long allocatedMax = 0;
+        private long allocatedCount = 0;
+
+        // Since the last LoopProfiler.reset(), publishing doesn't clear these
+        private long totalNanos = 0;
+        private long totalCount = 0;
+
+        private Section(String name) {
+            this.publisher = TelemetryRegistry.PROFILER_TABLE.getDoubleArrayTopic(name).publish();
+        }
+
+        public void start() {
+            if (trackAllocations) {
+                this.startBytes = AllocationCounter.currentThreadBytes();
+            }
+            this.startNanos = System.nanoTime();
+        }
+
+        public void stop() {
+            long now = System.nanoTime();
+            this.record(now - this.startNanos);
+            lastMarkNanos = now;
+            if (trackAllocations) {
+                this.recordAllocation(AllocationCounter.since(this.startBytes));
+                lastMarkBytes = AllocationCounter.currentThreadBytes();
+            }
+        }
+
+        private void record(long nanos) {
+            this.histogram.record(nanos);
+            this.totalNanos += nanos;
+            this.totalCount++;
+        }
+
+        private void recordAllocation(long bytes) {
+            this.allocatedTotal += bytes;
+            this.allocatedCount++;
+            if (bytes > this.allocatedMax) {
+                this.allocatedMax = bytes;
+            }
+        }
+
+        /**
+         * @return Average bytes allocated per run since the last publish, 0 if allocation tracking is off
+         */
+        public double getAverageAllocatedBytes() {
+            return this.allocatedCount == 0 ? 0 : (double) this.allocatedTotal / this.allocatedCount;
+        }
+
+        /**
+         * @return Total time spent in this section since the last {@link LoopProfiler#reset()}, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        /**
+         * @return How many times this section ran since the last {@link LoopProfiler#reset()}
+         */
+        public long getTotalCount() {
+            return this.totalCount;
+        }
+
+        private void reset() {
+            this.histogram.reset();
+            this.allocatedTotal = 0;
+            this.allocatedMax = 0;
+            this.allocatedCount = 0;
+            this.totalNanos = 0;
+            this.totalCount = 0;
+        }
+
+        private void publish() {
+            this.published[0] = this.histogram.getPercentileNanos(0.5) / 1e6;
+            this.published[1] = this.histogram.getPercentileNanos(0.99) / 1e6;
+            this.published[2] = this.histogram.getMaxNanos() / 1e6;
+            this.published[3] = this.histogram.getCount();
+            this.published[4] = this.getAverageAllocatedBytes();
+            this.published[5] = this.allocatedMax;
+            this.publisher.set(this.published);
+            this.histogram.reset();
+            this.allocatedTotal = 0;
+            this.allocatedMax = 0;
+            this.allocatedCount = 0;
+        }
+    }
+}
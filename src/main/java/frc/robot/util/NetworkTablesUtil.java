@@ -31,56 +31,18 @@ public class NetworkTablesUtil {
     public static NetworkTable getTable(String tableName) {
         return INSTANCE.getTable(tableName);
     }
-    public static void setLimelightPipeline(int pipeline){
-        NetworkTable table = INSTANCE.getTable("limelight");
-        table.getEntry("pipeline").setNumber(pipeline);
-    }
     public static int getLimeLightPipeline(){
-        NetworkTable table = INSTANCE.getTable("limelight");
-        return table.getEntry("getpipe").getNumber(1).intValue();
-    }
-
-    public static float getLimeLightErrorX() {
-        NetworkTable table = INSTANCE.getTable("limelight");
-        if (getLimeLightPipeline() == 1){
-            return table.getEntry("llpython").getNumberArray(new Number[]{0, 0, 0, 0})[1].floatValue() - 160.0f;
-        }
-        else{
-            return table.getEntry("tx").getNumber(0.0).floatValue()*5.369f;
-        }
-        
-    }
-
-    public static float getLimeLightErrorY() {
-        NetworkTable table = INSTANCE.getTable("limelight");
-        if (getLimeLightPipeline() == 1){
-            return table.getEntry("llpython").getNumberArray(new Number[]{0, 0, 0, 0})[2].floatValue() - 120.0f;
-        }
-        else{
-            return table.getEntry("ty").getNumber(0.0).floatValue()*5.2516f;
-        }
-    }
-
-    public static float getLimeLightArea() {
-        NetworkTable table = INSTANCE.getTable("limelight");
-        return table.getEntry("llpython").getNumberArray(new Number[]{0, 0, 0, 0})[3].floatValue();
-    }
-
-    public static float getConeOrientation() {
-        NetworkTable table = INSTANCE.getTable("limelight");
-        return table.getEntry("llpython").getNumberArray(new Number[]{0, 0, 0, 0})[0].floatValue();
+        return (int) TelemetryRegistry.LIMELIGHT_GETPIPE.get();
     }
 
     // Gets key from keyboard
     public static String getKeyString() {
-        NetworkTable table = INSTANCE.getTable("robogui");
-        return table.getEntry("key_string").getString("default");
+        return TelemetryRegistry.ROBOGUI_KEY_STRING.get();
     }
 
     // Gets key from keyboard
     public static int getKeyInteger() {
-        NetworkTable table = INSTANCE.getTable("robogui");
-        return (int) table.getEntry("key_int").getInteger(0);
+        return (int) TelemetryRegistry.ROBOGUI_KEY_INT.get();
     }
 
     /**
@@ -89,14 +51,12 @@ public class NetworkTablesUtil {
      * @return A {@link Translation2d} representing the robot's pose ([x, y, radians])
      */
     public static Pose2d getJetsonPoseMeters() {
-        NetworkTable table = INSTANCE.getTable("jetson");
-        double[] jetsonPoseXYZ = MathUtil.inchesArrayToMetersArray(table.getEntry("pose").getDoubleArray(new double[]{0.0, 0.0, 0.0})); // X, Y, Z
+        double[] jetsonPoseXYZ = MathUtil.inchesArrayToMetersArray(TelemetryRegistry.JETSON_POSE.get()); // X, Y, Z
         return new Pose2d(jetsonPoseXYZ[0],jetsonPoseXYZ[2],RobotGyro.getRotation2d());
     }  
 
     public static boolean getIfOnBlueTeam() {
-        NetworkTable table = INSTANCE.getTable("FMSInfo");
-        return !table.getEntry("IsRedAlliance").getBoolean(true);
+        return !TelemetryRegistry.FMS_IS_RED_ALLIANCE.get();
     }
 
     /**
@@ -110,6 +70,10 @@ public class NetworkTablesUtil {
         return getTable(tableName).getEntry(entryName);
     }
 
+    /**
+     * Gets (or makes) a publisher by name. This does a string concat and a map lookup every call, so call it once and
+     * keep the result, or better, add the topic to {@link TelemetryRegistry}.
+     */
     public static GenericPublisher getPublisher(String tableName, String entryName) {
         String path = "/" + tableName + "/" + entryName;
         var temp = publishers.get(path);
@@ -122,6 +86,10 @@ public class NetworkTablesUtil {
         return newPublisher;
     }
 
+    /**
+     * Gets (or makes) a subscriber by name. This does a string concat and a map lookup every call, so call it once and
+     * keep the result, or better, add the topic to {@link TelemetryRegistry}.
+     */
     public static GenericSubscriber getSubscriber(String tableName, String entryName) {
         String path = "/" + tableName + "/" + entryName;
         var temp = subscribers.get(path);
@@ -148,8 +116,13 @@ public class NetworkTablesUtil {
      * Use in conjunction w/ latencyTest() in network_tables.py to test latency.
      * (Also good example code)
      */
+    private static GenericSubscriber latencyTestSub;
+
     public static void latencyTesterPeriodicRun() {
-        var trajectorySub = getSubscriber("test", "test");
+        if (latencyTestSub == null) {
+            latencyTestSub = getSubscriber("test", "test");
+        }
+        var trajectorySub = latencyTestSub;
         final var EMPTY = new double[]{};
 
         TimestampedDoubleArray tsDA = new TimestampedDoubleArray(NetworkTablesJNI.now(), trajectorySub.getLastChange(), trajectorySub.getDoubleArray(EMPTY));
@@ -0,0 +1,120 @@
+package frc.robot.util;
+
+/**
+ * Fixed size ring buffer of recent timestamped poses, for looking up where the robot was when a (late) vision
+ * measurement was taken. Everything is stored in primitive arrays, so adding a pose never allocates.
+ * <p>
+ * Not thread safe, the caller has to make sure only one thread uses it at a time.
+ */
+public class PoseHistoryBuffer {
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+
+    private int newest = -1; // index of the most recent pose
+    private int size = 0;
+
+    /**
+     * @param capacity How many poses to keep. History covers capacity * (time between adds) seconds.
+     */
+    public PoseHistoryBuffer(int capacity) {
+        this.timestamps = new double[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.headings = new double[capacity];
+    }
+
+    /**
+     * Adds a pose. Timestamps have to go up, anything older than the newest pose is ignored.
+     *
+     * @param timestamp FPGA time in seconds
+     * @param x         X in meters
+     * @param y         Y in meters
+     * @param heading   Heading in radians
+     */
+    public void add(double timestamp, double x, double y, double heading) {
+        if (this.size > 0 && timestamp < this.timestamps[this.newest]) {
+            return;
+        }
+        this.newest = (this.newest + 1) % this.timestamps.length;
+        this.timestamps[this.newest] = timestamp;
+        this.xs[this.newest] = x;
+        this.ys[this.newest] = y;
+        this.headings[this.newest] = heading;
+        if (this.size < this.timestamps.length) {
+            this.size++;
+        }
+    }
+
+    public void clear() {
+        this.size = 0;
+        this.newest = -1;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return Timestamp of the oldest pose, NaN if empty
+     */
+    public double getOldestTimestamp() {
+        return this.size == 0 ? Double.NaN : this.timestamps[this.indexFromOldest(0)];
+    }
+
+    /**
+     * @return Timestamp of the newest pose, NaN if empty
+     */
+    public double getNewestTimestamp() {
+        return this.size == 0 ? Double.NaN : this.timestamps[this.newest];
+    }
+
+    /**
+     * Finds where the robot was at a given time, interpolating between the two poses around it.
+     *
+     * @param timestamp FPGA time in seconds
+     * @param out       Array of at least length 3 that [x, y, heading] gets written to
+     * @return False if the time is outside of the history, in which case out is not touched
+     */
+    public boolean sample(double timestamp, double[] out) {
+        if (this.size == 0 || timestamp < this.getOldestTimestamp() || timestamp > this.getNewestTimestamp()) {
+            return false;
+        }
+
+        // Binary search for the first pose at or after the timestamp
+        int lo = 0;
+        int hi = this.size - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.timestamps[this.indexFromOldest(mid)] < timestamp) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        int after = this.indexFromOldest(lo);
+        if (lo == 0 || this.timestamps[after] == timestamp) {
+            out[0] = this.xs[after];
+            out[1] = this.ys[after];
+            out[2] = this.headings[after];
+            return true;
+        }
+
+        int before = this.indexFromOldest(lo - 1);
+        double t = (timestamp - this.timestamps[before]) / (this.timestamps[after] - this.timestamps[before]);
+        out[0] = this.xs[before] + (this.xs[after] - this.xs[before]) * t;
+        out[1] = this.ys[before] + (this.ys[after] - this.ys[before]) * t;
+        // Go the short way around if the heading wrapped between the two
+        out[2] = this.headings[before] + Math.IEEEremainder(this.headings[after] - this.headings[before], 2 * Math.PI) * t;
+        return true;
+    }
+
+    private int indexFromOldest(int i) {
+        int oldest = this.newest - this.size + 1;
+        int index = oldest + i;
+        int capacity = this.timestamps.length;
+        return ((index % capacity) + capacity) % capacity;
+    }
+}
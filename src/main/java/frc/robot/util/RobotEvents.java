@@ -0,0 +1,131 @@
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Custom JDK Flight Recorder events for the robot loop, command lifecycles, arm IK solves, trajectory loads and CAN
+ * sensor reads, so one JFR recording shows where a slow loop or auto spends its time.
+ * <p>
+ * Off by default. Turn them on by starting the JVM with {@code -Drobot.jfr=true} (e.g. for the simulator), or at
+ * runtime by setting {@code profiler/jfrEnabled} in NetworkTables. Then start a recording as usual (JDK Mission
+ * Control, or {@code jcmd <pid> JFR.start}). When they're off every method here is a single boolean check and nothing
+ * gets allocated. If the JVM doesn't have jdk.jfr they stay off no matter what.
+ * <p>
+ * Duration events are started with a begin method that returns a token, which gets passed to the matching end method.
+ * The token is null when events are off, and the end methods ignore null, so call sites don't need to check.
+ */
+public final class RobotEvents {
+    private RobotEvents() {
+        throw new UnsupportedOperationException("RobotEvents is a utility class and should not be instantiated!");
+    }
+
+    public static final String ENABLED_PROPERTY = "robot.jfr";
+
+    private static final boolean AVAILABLE = isJfrAvailable();
+    private static volatile boolean enabled = AVAILABLE && Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, RobotEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enable) {
+        enabled = AVAILABLE && enable;
+    }
+
+    /**
+     * Picks up the NetworkTables switch, call once per loop.
+     */
+    public static void refresh() {
+        boolean requested = TelemetryRegistry.JFR_ENABLED.get(enabled);
+        if (requested != enabled) {
+            setEnabled(requested);
+        }
+    }
+
+    /**
+     * Records an event whenever a command is initialized, executed, finishes or is interrupted. Those hooks run after
+     * the fact, so command events are instants rather than durations.
+     */
+    public static void install(CommandScheduler scheduler) {
+        scheduler.onCommandInitialize(command -> {
+            if (enabled) {
+                JfrEvents.command(command.getName(), "initialize");
+            }
+        });
+        scheduler.onCommandExecute(command -> {
+            if (enabled) {
+                JfrEvents.command(command.getName(), "execute");
+            }
+        });
+        scheduler.onCommandFinish(command -> {
+            if (enabled) {
+                JfrEvents.command(command.getName(), "finish");
+            }
+        });
+        scheduler.onCommandInterrupt(command -> {
+            if (enabled) {
+                JfrEvents.command(command.getName(), "interrupt");
+            }
+        });
+    }
+
+    /**
+     * Call at the start of robotPeriodic(), main thread only.
+     */
+    public static void beginLoop() {
+        if (enabled) {
+            JfrEvents.beginLoop();
+        }
+    }
+
+    /**
+     * Call at the end of robotPeriodic(), main thread only.
+     */
+    public static void endLoop() {
+        if (enabled) {
+            JfrEvents.endLoop();
+        }
+    }
+
+    public static Object beginIkSolve() {
+        return enabled ? JfrEvents.beginIkSolve() : null;
+    }
+
+    public static void endIkSolve(Object token, double x, double y, double z, boolean flipped, String status) {
+        if (token != null) {
+            JfrEvents.endIkSolve(token, x, y, z, flipped, status);
+        }
+    }
+
+    public static Object beginTrajectoryLoad() {
+        return enabled ? JfrEvents.beginTrajectoryLoad() : null;
+    }
+
+    public static void endTrajectoryLoad(Object token, String trajectory, int states) {
+        if (token != null) {
+            JfrEvents.endTrajectoryLoad(token, trajectory, states);
+        }
+    }
+
+    public static Object beginCanRead() {
+        return enabled ? JfrEvents.beginCanRead() : null;
+    }
+
+    /**
+     * @param device Which device(s) got read, use a constant so nothing gets built when events are on either
+     */
+    public static void endCanRead(Object token, String device) {
+        if (token != null) {
+            JfrEvents.endCanRead(token, device);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package frc.robot.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Logging for code that runs every loop, use this instead of System.out.println.
+ * <p>
+ * Printing to the console on the roboRIO is slow and blocks until it's done, which is enough to make us overrun the
+ * loop. Messages logged here just get copied into a preallocated ring buffer (no locks, no allocation) and a background
+ * thread prints them and writes them to the WPILib DataLog (under {@value #LOG_ENTRY_NAME}) later.
+ * <p>
+ * To keep that allocation free, messages are a constant template plus up to {@value #MAX_ARGS} numbers, and every
+ * {@code {}} in the template gets replaced by the next number when the message is printed:
+ * <pre>
+ * RobotLogger.log("Arm target: {}, {}, {}", x, y, z);
+ * </pre>
+ * Don't build the template with string concatenation, that allocates and defeats the point. If the buffer fills up,
+ * new messages are dropped and counted (see {@link #getDroppedCount()}). For messages that would be logged every loop,
+ * use a {@link Channel} to rate limit them.
+ */
+public final class RobotLogger {
+    private RobotLogger() {
+        throw new UnsupportedOperationException("RobotLogger is a utility class and should not be instantiated!");
+    }
+
+    public static final String LOG_ENTRY_NAME = "robotlog";
+    public static final int MAX_ARGS = 4;
+
+    private static final int CAPACITY = 1024; // must be a power of 2
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_SLEEP_NANOS = 10_000_000; // 10ms
+
+    // The ring. Slot i's sequence number says who owns it: == position means a producer can claim it,
+    // == position + 1 means it's been written and the drain thread can read it.
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    private static final String[] templates = new String[CAPACITY];
+    private static final double[] args = new double[CAPACITY * MAX_ARGS];
+    private static final int[] argCounts = new int[CAPACITY];
+    private static final long[] timestamps = new long[CAPACITY];
+
+    private static final AtomicLong writePosition = new AtomicLong();
+    private static long readPosition = 0; // only touched by the drain thread
+
+    private static final AtomicLong droppedCount = new AtomicLong();
+    private static final AtomicLong rateLimitedCount = new AtomicLong();
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        Thread drainThread = new Thread(RobotLogger::drainLoop, "RobotLogger");
+        drainThread.setDaemon(true);
+        drainThread.setPriority(Thread.MIN_PRIORITY);
+        drainThread.start();
+    }
+
+    public static void log(String template) {
+        enqueue(template, 0, 0, 0, 0, 0);
+    }
+
+    public static void log(String template, double arg0) {
+        enqueue(template, 1, arg0, 0, 0, 0);
+    }
+
+    public static void log(String template, double arg0, double arg1) {
+        enqueue(template, 2, arg0, arg1, 0, 0);
+    }
+
+    public static void log(String template, double arg0, double arg1, double arg2) {
+        enqueue(template, 3, arg0, arg1, arg2, 0);
+    }
+
+    public static void log(String template, double arg0, double arg1, double arg2, double arg3) {
+        enqueue(template, 4, arg0, arg1, arg2, arg3);
+    }
+
+    /**
+     * @return How many messages were thrown away because the buffer was full
+     */
+    public static long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return How many messages were skipped by {@link Channel} rate limits
+     */
+    public static long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    /**
+     * Makes a rate limited channel. Keep it in a static final field and log through it.
+     *
+     * @param minPeriodSeconds Minimum time between messages on this channel, anything logged sooner is skipped
+     */
+    public static Channel channel(double minPeriodSeconds) {
+        return new Channel(minPeriodSeconds);
+    }
+
+    /**
+     * A rate limited way to log, for messages that would otherwise be logged every loop.
+     */
+    public static final class Channel {
+        private final long minPeriodMicros;
+        private volatile long lastLogMicros = Long.MIN_VALUE;
+
+        private Channel(double minPeriodSeconds) {
+            this.minPeriodMicros = (long) (minPeriodSeconds * 1e6);
+        }
+
+        private boolean shouldLog() {
+            long now = RobotController.getFPGATime();
+            long last = this.lastLogMicros;
+            if (last != Long.MIN_VALUE && now - last < this.minPeriodMicros) {
+                rateLimitedCount.incrementAndGet();
+                return false;
+            }
+            this.lastLogMicros = now;
+            return true;
+        }
+
+        public void log(String template) {
+            if (shouldLog()) {
+                enqueue(template, 0, 0, 0, 0, 0);
+            }
+        }
+
+        public void log(String template, double arg0) {
+            if (shouldLog()) {
+                enqueue(template, 1, arg0, 0, 0, 0);
+            }
+        }
+
+        public void log(String template, double arg0, double arg1) {
+            if (shouldLog()) {
+                enqueue(template, 2, arg0, arg1, 0, 0);
+            }
+        }
+
+        public void log(String template, double arg0, double arg1, double arg2) {
+            if (shouldLog()) {
+                enqueue(template, 3, arg0, arg1, arg2, 0);
+            }
+        }
+
+        public void log(String template, double arg0, double arg1, double arg2, double arg3) {
+            if (shouldLog()) {
+                enqueue(template, 4, arg0, arg1, arg2, arg3);
+            }
+        }
+    }
+
+    private static void enqueue(String template, int argCount, double arg0, double arg1, double arg2, double arg3) {
+        long timestamp = RobotController.getFPGATime();
+        long position = writePosition.get();
+        while (true) {
+            int slot = (int) (position & MASK);
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                // Slot is free, try to claim it
+                if (writePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = writePosition.get();
+            } else if (sequence < position) {
+                // The drain thread hasn't gotten to this slot from the last lap yet, so we're full
+                droppedCount.incrementAndGet();
+                return;
+            } else {
+                // Someone else claimed it first
+                position = writePosition.get();
+            }
+        }
+
+        int slot = (int) (position & MASK);
+        int argIndex = slot * MAX_ARGS;
+        templates[slot] = template;
+        timestamps[slot] = timestamp;
+        argCounts[slot] = argCount;
+        args[argIndex] = arg0;
+        args[argIndex + 1] = arg1;
+        args[argIndex + 2] = arg2;
+        args[argIndex + 3] = arg3;
+        sequences.set(slot, position + 1); // publishes everything above to the drain thread
+    }
+
+    private static void drainLoop() {
+        StringLogEntry logEntry = new StringLogEntry(DataLogManager.getLog(), LOG_ENTRY_NAME);
+        StringBuilder builder = new StringBuilder(256);
+        long reportedDrops = 0;
+
+        while (true) {
+            int slot = (int) (readPosition & MASK);
+            if (sequences.get(slot) != readPosition + 1) {
+                // Nothing to print, mention anything we dropped and then wait for more
+                long dropped = droppedCount.get();
+                if (dropped != reportedDrops) {
+                    String message = "RobotLogger: dropped " + (dropped - reportedDrops) + " messages (buffer full)";
+                    System.out.println(message);
+                    logEntry.append(message);
+                    reportedDrops = dropped;
+                }
+                LockSupport.parkNanos(IDLE_SLEEP_NANOS);
+                continue;
+            }
+
+            builder.setLength(0);
+            format(builder, templates[slot], args, slot * MAX_ARGS, argCounts[slot]);
+            long timestamp = timestamps[slot];
+            templates[slot] = null;
+            sequences.set(slot, readPosition + CAPACITY); // hand the slot back to the producers
+            readPosition++;
+
+            String message = builder.toString();
+            System.out.println(message);
+            logEntry.append(message, timestamp);
+        }
+    }
+
+    private static void format(StringBuilder builder, String template, double[] values, int offset, int count) {
+        int used = 0;
+        int start = 0;
+        while (used < count) {
+            int placeholder = template.indexOf("{}", start);
+            if (placeholder < 0) {
+                break;
+            }
+            builder.append(template, start, placeholder);
+            appendNumber(builder, values[offset + used]);
+            used++;
+            start = placeholder + 2;
+        }
+        builder.append(template, start, template.length());
+    }
+
+    private static void appendNumber(StringBuilder builder, double value) {
+        // Print counters and such as 3 instead of 3.0
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            builder.append((long) value);
+        } else {
+            builder.append(value);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package frc.robot.util;
+
+import edu.wpi.first.networktables.BooleanEntry;
+import edu.wpi.first.networktables.BooleanSubscriber;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.IntegerSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.networktables.StringSubscriber;
+
+/**
+ * Every NetworkTables topic the robot code reads or writes, resolved once when this class loads.
+ * <p>
+ * Looking a topic up by name (table lookup, string concatenation, HashMap lookups in {@link NetworkTablesUtil}) every
+ * loop adds up, so code that runs every loop should use these typed handles instead. Add new topics here rather than
+ * looking them up where they're used.
+ */
+public final class TelemetryRegistry {
+    private TelemetryRegistry() {
+        throw new UnsupportedOperationException("TelemetryRegistry is a utility class and should not be instantiated!");
+    }
+
+    private static final NetworkTableInstance INSTANCE = NetworkTableInstance.getDefault();
+
+    private static final NetworkTable ROBOT_TABLE = INSTANCE.getTable("robot");
+    private static final NetworkTable ARM_TABLE = INSTANCE.getTable("arm");
+    private static final NetworkTable LIMELIGHT_TABLE = INSTANCE.getTable("limelight");
+    private static final NetworkTable JETSON_TABLE = INSTANCE.getTable("jetson");
+    private static final NetworkTable FMS_TABLE = INSTANCE.getTable("FMSInfo");
+    private static final NetworkTable ROBOGUI_TABLE = INSTANCE.getTable("robogui");
+    private static final NetworkTable TRAJECTORIES_TABLE = INSTANCE.getTable("trajectories");
+    /** Loop timing, one topic per {@link LoopProfiler} section so those get made there */
+    public static final NetworkTable PROFILER_TABLE = INSTANCE.getTable("profiler");
+
+    // Robot
+    /** [x, y, rotation (radians)] in meters */
+    public static final DoubleArrayPublisher DRIVE_ODOMETRY = ROBOT_TABLE.getDoubleArrayTopic("drive_odometry").publish();
+    /** How old vision measurements are by the time they get fused, in ms */
+    public static final DoublePublisher VISION_LATENCY = ROBOT_TABLE.getDoubleTopic("visionLatencyMs").publish();
+    public static final IntegerPublisher VISION_ACCEPTED = ROBOT_TABLE.getIntegerTopic("visionAccepted").publish();
+    public static final IntegerPublisher VISION_REJECTED = ROBOT_TABLE.getIntegerTopic("visionRejected").publish();
+    /** Fraction of vision measurements that made it past the outlier check */
+    public static final DoublePublisher VISION_ACCEPTANCE_RATE = ROBOT_TABLE.getDoubleTopic("visionAcceptanceRate").publish();
+
+    // Profiling
+    /** Turns the custom JFR events on and off, see RobotEvents */
+    public static final BooleanSubscriber JFR_ENABLED = PROFILER_TABLE.getBooleanTopic("jfrEnabled").subscribe(false);
+    /** Turns per section allocation counting on and off, see LoopProfiler */
+    public static final BooleanSubscriber TRACK_ALLOCATIONS = PROFILER_TABLE.getBooleanTopic("trackAllocations").subscribe(false);
+
+    // Trajectory generation cache, see TrajectoryCache
+    public static final IntegerPublisher TRAJECTORY_CACHE_HITS = TRAJECTORIES_TABLE.getIntegerTopic("cacheHits").publish();
+    public static final IntegerPublisher TRAJECTORY_CACHE_MISSES = TRAJECTORIES_TABLE.getIntegerTopic("cacheMisses").publish();
+    public static final IntegerPublisher TRAJECTORY_CACHE_EVICTIONS = TRAJECTORIES_TABLE.getIntegerTopic("cacheEvictions").publish();
+    public static final IntegerPublisher TRAJECTORY_CACHE_SIZE = TRAJECTORIES_TABLE.getIntegerTopic("cacheSize").publish();
+
+    // Arm
+    public static final BooleanEntry ARM_USE_SPARKMAX_PID = ARM_TABLE.getBooleanTopic("useSparkMaxPID").getEntry(false);
+    public static final StringPublisher ARM_CONTROL_MODE = ARM_TABLE.getStringTopic("controlMode").publish();
+    public static final DoublePublisher ARM_SETTLE_TIME = ARM_TABLE.getDoubleTopic("settleTimeSeconds").publish();
+    public static final DoublePublisher ARM_CONTROL_LOOP_TIME = ARM_TABLE.getDoubleTopic("controlLoopTimeMicros").publish();
+    public static final DoublePublisher ARM_CALIBRATION_DURATION = ARM_TABLE.getDoubleTopic("calibrationDurationSeconds").publish();
+    public static final StringPublisher ARM_CALIBRATION_RESULT = ARM_TABLE.getStringTopic("calibrationResult").publish();
+
+    // LimeLight
+    public static final DoubleSubscriber LIMELIGHT_TX = LIMELIGHT_TABLE.getDoubleTopic("tx").subscribe(0.0);
+    public static final DoubleSubscriber LIMELIGHT_TY = LIMELIGHT_TABLE.getDoubleTopic("ty").subscribe(0.0);
+    public static final DoubleSubscriber LIMELIGHT_TA = LIMELIGHT_TABLE.getDoubleTopic("ta").subscribe(0.0);
+    public static final DoubleSubscriber LIMELIGHT_TV = LIMELIGHT_TABLE.getDoubleTopic("tv").subscribe(0.0);
+    /** Pipeline latency in ms */
+    public static final DoubleSubscriber LIMELIGHT_TL = LIMELIGHT_TABLE.getDoubleTopic("tl").subscribe(0.0);
+    /** Capture latency in ms */
+    public static final DoubleSubscriber LIMELIGHT_CL = LIMELIGHT_TABLE.getDoubleTopic("cl").subscribe(0.0);
+    /** Goes up by one every frame the LimeLight processes, so it changes even when nothing else does */
+    public static final DoubleSubscriber LIMELIGHT_HB = LIMELIGHT_TABLE.getDoubleTopic("hb").subscribe(0.0);
+    /** The pipeline the LimeLight is actually running */
+    public static final DoubleSubscriber LIMELIGHT_GETPIPE = LIMELIGHT_TABLE.getDoubleTopic("getpipe").subscribe(1.0);
+    /** Output of our python pipeline: [cone orientation, x (px), y (px), area (px)] */
+    public static final DoubleArraySubscriber LIMELIGHT_PYTHON = LIMELIGHT_TABLE.getDoubleArrayTopic("llpython").subscribe(new double[]{0, 0, 0, 0});
+    /** The pipeline we want the LimeLight to run. Has to be a double, that's the type the LimeLight makes the topic with */
+    public static final DoublePublisher LIMELIGHT_PIPELINE = LIMELIGHT_TABLE.getDoubleTopic("pipeline").publish();
+
+    // Jetson
+    /** [x, y, z] in inches */
+    public static final DoubleArraySubscriber JETSON_POSE = JETSON_TABLE.getDoubleArrayTopic("pose").subscribe(new double[]{0.0, 0.0, 0.0});
+
+    // FMS
+    public static final BooleanSubscriber FMS_IS_RED_ALLIANCE = FMS_TABLE.getBooleanTopic("IsRedAlliance").subscribe(true);
+
+    // RoboGUI keyboard
+    public static final StringSubscriber ROBOGUI_KEY_STRING = ROBOGUI_TABLE.getStringTopic("key_string").subscribe("default");
+    public static final IntegerSubscriber ROBOGUI_KEY_INT = ROBOGUI_TABLE.getIntegerTopic("key_int").subscribe(0);
+
+    /**
+     * Makes sure everything above gets resolved at startup instead of the first time it's used
+     */
+    public static void poke() {
+    }
+}
@@ -0,0 +1,95 @@
+package frc.robot.util;
+
+/**
+ * Fixed size ring buffer of timestamped values, for looking up what a sensor read at some point in the recent past.
+ * Same idea as {@link PoseHistoryBuffer} but for a single number. Adding never allocates.
+ * <p>
+ * Not thread safe, the caller has to make sure only one thread uses it at a time.
+ */
+public class TimestampedDoubleBuffer {
+    private final double[] timestamps;
+    private final double[] values;
+
+    private int newest = -1; // index of the most recent value
+    private int size = 0;
+
+    /**
+     * @param capacity How many values to keep
+     */
+    public TimestampedDoubleBuffer(int capacity) {
+        this.timestamps = new double[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Adds a value. Timestamps have to go up, anything older than the newest value is ignored.
+     *
+     * @param timestamp FPGA time in seconds
+     * @param value     The value
+     */
+    public void add(double timestamp, double value) {
+        if (this.size > 0 && timestamp < this.timestamps[this.newest]) {
+            return;
+        }
+        this.newest = (this.newest + 1) % this.timestamps.length;
+        this.timestamps[this.newest] = timestamp;
+        this.values[this.newest] = value;
+        if (this.size < this.timestamps.length) {
+            this.size++;
+        }
+    }
+
+    public void clear() {
+        this.size = 0;
+        this.newest = -1;
+    }
+
+    /**
+     * @return The newest value, NaN if empty
+     */
+    public double getNewest() {
+        return this.size == 0 ? Double.NaN : this.values[this.newest];
+    }
+
+    /**
+     * Finds the value at a given time, interpolating between the two values around it.
+     *
+     * @param timestamp FPGA time in seconds
+     * @return The value, or NaN if the time is outside of the history
+     */
+    public double sample(double timestamp) {
+        if (this.size == 0) {
+            return Double.NaN;
+        }
+        int oldestIndex = this.indexFromOldest(0);
+        if (timestamp < this.timestamps[oldestIndex] || timestamp > this.timestamps[this.newest]) {
+            return Double.NaN;
+        }
+
+        // Binary search for the first value at or after the timestamp
+        int lo = 0;
+        int hi = this.size - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.timestamps[this.indexFromOldest(mid)] < timestamp) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        int after = this.indexFromOldest(lo);
+        if (lo == 0 || this.timestamps[after] == timestamp) {
+            return this.values[after];
+        }
+        int before = this.indexFromOldest(lo - 1);
+        double t = (timestamp - this.timestamps[before]) / (this.timestamps[after] - this.timestamps[before]);
+        return this.values[before] + (this.values[after] - this.values[before]) * t;
+    }
+
+    private int indexFromOldest(int i) {
+        int capacity = this.timestamps.length;
+        int index = this.newest - this.size + 1 + i;
+        return ((index % capacity) + capacity) % capacity;
+    }
+}
@@ -0,0 +1,154 @@
+package frc.robot.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryUtil;
+
+/**
+ * Compact binary version of a PathWeaver {@code .wpilib.json} trajectory, so that robotInit can memory map it instead
+ * of running every path through Jackson.
+ * <p>
+ * Layout (big endian): a {@value #HEADER_BYTES} byte header (magic, version, the CRC32 of the JSON file it was made
+ * from, state count), then one fixed size record per state of {@value #DOUBLES_PER_STATE} doubles: time, velocity,
+ * acceleration, x, y, heading (radians), curvature. Same units as the JSON.
+ * <p>
+ * The files are generated next to the JSON by the {@code generateTrajectoryBinaries} Gradle task (which runs
+ * {@link #main(String[])}), so they get deployed with the rest of {@code src/main/deploy}.
+ */
+public final class TrajectoryBinaryFile {
+    private TrajectoryBinaryFile() {
+        throw new UnsupportedOperationException("TrajectoryBinaryFile is a utility class and should not be instantiated!");
+    }
+
+    public static final String JSON_EXTENSION = ".wpilib.json";
+    public static final String BINARY_EXTENSION = ".traj.bin";
+
+    private static final int MAGIC = 0x5452414A; // "TRAJ"
+    private static final int VERSION = 2; // 1 had the JSON's size instead of its CRC32
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int DOUBLES_PER_STATE = 7;
+    private static final int STATE_BYTES = DOUBLES_PER_STATE * Double.BYTES;
+
+    /**
+     * @param jsonPath Path to a {@code .wpilib.json} file
+     * @return Where its binary version goes
+     */
+    public static Path binaryPathFor(Path jsonPath) {
+        String name = jsonPath.getFileName().toString();
+        if (name.endsWith(JSON_EXTENSION)) {
+            name = name.substring(0, name.length() - JSON_EXTENSION.length());
+        }
+        return jsonPath.resolveSibling(name + BINARY_EXTENSION);
+    }
+
+    /**
+     * @param jsonPath Path to a {@code .wpilib.json} file
+     * @return CRC32 of the file's contents, what the binary header stores to spot stale binaries
+     */
+    public static long checksum(Path jsonPath) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(jsonPath));
+        return crc.getValue();
+    }
+
+    /**
+     * Memory maps a binary trajectory and reads it into a {@link Trajectory}.
+     *
+     * @param binaryPath Path to the binary file
+     * @param jsonPath   The JSON it was generated from. If its contents have changed since (checked with a CRC32, so an
+     *                   edit that keeps the size the same still counts), the binary is stale and this throws so the
+     *                   caller can fall back to the JSON. Can be null to skip the check.
+     * @throws IOException If the file is missing, stale or isn't a trajectory file
+     */
+    public static Trajectory read(Path binaryPath, Path jsonPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(binaryPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " trajectory file");
+            }
+            long sourceChecksum = buffer.getLong();
+            if (jsonPath != null && checksum(jsonPath) != sourceChecksum) {
+                throw new IOException("Out of date with " + jsonPath.getFileName() + ", regenerate it");
+            }
+            int stateCount = buffer.getInt();
+            if (stateCount <= 0 || buffer.remaining() != (long) stateCount * STATE_BYTES) {
+                throw new IOException("Expected " + stateCount + " states but the file is " + channel.size() + " bytes");
+            }
+
+            List<Trajectory.State> states = new ArrayList<>(stateCount);
+            for (int i = 0; i < stateCount; i++) {
+                double time = buffer.getDouble();
+                double velocity = buffer.getDouble();
+                double acceleration = buffer.getDouble();
+                double x = buffer.getDouble();
+                double y = buffer.getDouble();
+                double heading = buffer.getDouble();
+                double curvature = buffer.getDouble();
+                states.add(new Trajectory.State(time, velocity, acceleration, new Pose2d(x, y, new Rotation2d(heading)), curvature));
+            }
+            return new Trajectory(states);
+        }
+    }
+
+    /**
+     * Writes a trajectory in the binary format.
+     *
+     * @param trajectory     The trajectory
+     * @param sourceChecksum {@link #checksum(Path)} of the JSON file it came from, used to spot stale binaries
+     * @param output         File to write
+     */
+    public static void write(Trajectory trajectory, long sourceChecksum, Path output) throws IOException {
+        List<Trajectory.State> states = trajectory.getStates();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceChecksum);
+            out.writeInt(states.size());
+            for (Trajectory.State state : states) {
+                out.writeDouble(state.timeSeconds);
+                out.writeDouble(state.velocityMetersPerSecond);
+                out.writeDouble(state.accelerationMetersPerSecondSq);
+                out.writeDouble(state.poseMeters.getX());
+                out.writeDouble(state.poseMeters.getY());
+                out.writeDouble(state.poseMeters.getRotation().getRadians());
+                out.writeDouble(state.curvatureRadPerMeter);
+            }
+        }
+    }
+
+    /**
+     * Converts every {@code .wpilib.json} in a directory into a binary file next to it. Run by the
+     * {@code generateTrajectoryBinaries} Gradle task.
+     *
+     * @param args [paths directory]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: TrajectoryBinaryFile <paths directory>");
+        }
+        Path directory = Paths.get(args[0]);
+        try (DirectoryStream<Path> jsonFiles = Files.newDirectoryStream(directory, "*" + JSON_EXTENSION)) {
+            for (Path json : jsonFiles) {
+                Trajectory trajectory = TrajectoryUtil.fromPathweaverJson(json);
+                Path output = binaryPathFor(json);
+                write(trajectory, checksum(json), output);
+                System.out.println("Wrote " + output.getFileName() + " (" + trajectory.getStates().size() + " states)");
+            }
+        }
+    }
+}
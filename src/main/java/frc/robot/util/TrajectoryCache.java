@@ -0,0 +1,147 @@
+package frc.robot.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+
+/**
+ * Bounded LRU cache of generated trajectories, so asking for the same on the fly path twice (e.g. driving back to the
+ * grid) only does the spline generation once.
+ * <p>
+ * Poses and waypoints are rounded to {@code positionTolerance} meters and {@code angleTolerance} radians before being
+ * used as the key, so two requests that are within that of each other get the same trajectory back. Keep the
+ * tolerances small enough that the follower can make up the difference. Safe to use from more than one thread.
+ */
+public class TrajectoryCache {
+    /**
+     * Makes a trajectory on a cache miss.
+     */
+    public interface Generator {
+        Trajectory generate(Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reversed);
+    }
+
+    private final double positionTolerance;
+    private final double angleTolerance;
+    private final Map<Key, Trajectory> cache;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxSize           Most trajectories to keep, the least recently used one gets thrown out past this
+     * @param positionTolerance Position rounding in meters
+     * @param angleTolerance    Angle rounding in radians
+     */
+    public TrajectoryCache(int maxSize, double positionTolerance, double angleTolerance) {
+        this.positionTolerance = positionTolerance;
+        this.angleTolerance = angleTolerance;
+        this.cache = new LinkedHashMap<Key, Trajectory>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Trajectory> eldest) {
+                if (size() > maxSize) {
+                    TrajectoryCache.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached trajectory, or generates and caches one. Generation happens outside the lock, so a slow miss on
+     * one thread doesn't hold up hits on another.
+     */
+    public Trajectory get(Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reversed, Generator generator) {
+        Key key = this.makeKey(start, waypoints, end, reversed);
+        synchronized (this) {
+            Trajectory trajectory = this.cache.get(key);
+            if (trajectory != null) {
+                this.hits++;
+                this.publishStats();
+                return trajectory;
+            }
+            this.misses++;
+        }
+
+        Trajectory trajectory = generator.generate(start, waypoints, end, reversed);
+        synchronized (this) {
+            this.cache.put(key, trajectory);
+            this.publishStats();
+        }
+        return trajectory;
+    }
+
+    public synchronized void clear() {
+        this.cache.clear();
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    private void publishStats() {
+        TelemetryRegistry.TRAJECTORY_CACHE_HITS.set(this.hits);
+        TelemetryRegistry.TRAJECTORY_CACHE_MISSES.set(this.misses);
+        TelemetryRegistry.TRAJECTORY_CACHE_EVICTIONS.set(this.evictions);
+        TelemetryRegistry.TRAJECTORY_CACHE_SIZE.set(this.cache.size());
+    }
+
+    private Key makeKey(Pose2d start, List<Translation2d> waypoints, Pose2d end, boolean reversed) {
+        long[] values = new long[7 + waypoints.size() * 2];
+        values[0] = reversed ? 1 : 0;
+        values[1] = this.roundPosition(start.getX());
+        values[2] = this.roundPosition(start.getY());
+        values[3] = this.roundAngle(start.getRotation().getRadians());
+        values[4] = this.roundPosition(end.getX());
+        values[5] = this.roundPosition(end.getY());
+        values[6] = this.roundAngle(end.getRotation().getRadians());
+        int i = 7;
+        for (Translation2d waypoint : waypoints) {
+            values[i++] = this.roundPosition(waypoint.getX());
+            values[i++] = this.roundPosition(waypoint.getY());
+        }
+        return new Key(values);
+    }
+
+    private long roundPosition(double meters) {
+        return Math.round(meters / this.positionTolerance);
+    }
+
+    private long roundAngle(double radians) {
+        return Math.round(radians / this.angleTolerance);
+    }
+
+    private static final class Key {
+        private final long[] values;
+        private final int hash;
+
+        private Key(long[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(this.values, ((Key) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
@@ -5,36 +5,93 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.networktables.GenericSubscriber;
 import frc.robot.util.NetworkTablesUtil;
+import frc.robot.util.RobotLogger;
 
 import java.util.ArrayList;
 
+/**
+ * Reads trajectories that the GUI sends over NetworkTables.
+ * <p>
+ * {@link #periodic()} only parses when the topic has actually changed since last time, so it's fine to call every loop.
+ * The parsed trajectory gets swapped in with a single volatile write, so {@link #getCurrentTrajectory()} can be called
+ * from any thread and always sees a whole trajectory. Trajectories are never modified after they're handed out.
+ */
 public class TrajectoryReader {
-    public Trajectory currentTrajectory;
+    public static final int DOUBLES_PER_STATE = 7;
+
+    private volatile Trajectory currentTrajectory;
     private final GenericSubscriber trajectorySub;
+    private long lastProcessedChange = 0;
     private static final double[] EMPTY = new double[]{};
+    private static final RobotLogger.Channel BAD_ARRAY_LOG = RobotLogger.channel(1.0);
 
     public TrajectoryReader(String trajectoryTable, String trajectoryEntry) {
         this.trajectorySub = NetworkTablesUtil.getSubscriber(trajectoryTable, trajectoryEntry);
     }
 
     public void periodic() {
-        var latest = this.trajectorySub.getDoubleArray(EMPTY);
-        if (latest.length == 0 || latest.length % 7 != 0) {
-            System.out.println("Bad array");
+        long lastChange = this.trajectorySub.getLastChange();
+        if (lastChange == this.lastProcessedChange) {
+            return;
+        }
+        this.lastProcessedChange = lastChange;
+
+        Trajectory parsed = parseTrajectory(this.trajectorySub.getDoubleArray(EMPTY));
+        if (parsed != null) {
+            this.currentTrajectory = parsed;
         }
+    }
 
-        ArrayList<Trajectory.State> states = new ArrayList<>();
+    /**
+     * @return The latest valid trajectory from the GUI, or null if there hasn't been one yet
+     */
+    public Trajectory getCurrentTrajectory() {
+        return this.currentTrajectory;
+    }
 
-        for (int i = 0; i < latest.length; i++) {
-            int shift = i * 7;
+    /**
+     * Turns a flattened array of trajectory states into a trajectory. Every state is {@value #DOUBLES_PER_STATE}
+     * doubles: [time, velocity, acceleration, x, y, rotation (radians), curvature].
+     *
+     * @param latest The flattened states
+     * @return The trajectory, or null if the array is empty, isn't a whole number of states, has a NaN/infinite value
+     * or goes back in time
+     */
+    public static Trajectory parseTrajectory(double[] latest) {
+        if (latest.length == 0 || latest.length % DOUBLES_PER_STATE != 0) {
+            BAD_ARRAY_LOG.log("Ignoring trajectory, bad array length {}", latest.length);
+            return null;
+        }
+
+        int stateCount = latest.length / DOUBLES_PER_STATE;
+        // Sized exactly up front so it never has to grow
+        ArrayList<Trajectory.State> states = new ArrayList<>(stateCount);
+        double lastTime = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0, shift = 0; i < stateCount; i++, shift += DOUBLES_PER_STATE) {
+            double time = latest[shift];
+            if (!(time >= lastTime) || !isFinite(latest, shift)) {
+                BAD_ARRAY_LOG.log("Ignoring trajectory, bad state at index {}", i);
+                return null;
+            }
+            lastTime = time;
             states.add(new Trajectory.State(
-                    latest[shift + 0],
+                    time,
                     latest[shift + 1],
                     latest[shift + 2],
                     new Pose2d(latest[shift + 3], latest[shift + 4], new Rotation2d(latest[shift + 5])),
                     latest[shift + 6]));
         }
 
-        this.currentTrajectory = new Trajectory(states);
+        return new Trajectory(states);
+    }
+
+    private static boolean isFinite(double[] values, int offset) {
+        for (int i = offset; i < offset + DOUBLES_PER_STATE; i++) {
+            if (!Double.isFinite(values[i])) {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.JoystickSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.button.CommandJoystick;
+import frc.robot.Constants.ArmConstants;
+import frc.robot.Constants.OperatorConstants;
+import frc.robot.controllers.FlightJoystick;
+import frc.robot.util.AllocationCounter;
+
+/**
+ * Runs the arm and drivetrain on the simulated HAL (no Robot, no scheduler, no commands), with the arm following a
+ * moving target and the drivetrain driving an arc, and fails if their loop code makes more garbage per loop than
+ * {@link #BYTES_PER_LOOP_BUDGET}. The HAL clock is paused and stepped 20ms at a time, and the drivetrain physics sim is
+ * stepped between loops, outside of what gets measured.
+ */
+class AllocationBudgetTest {
+    /**
+     * Average bytes the arm and drivetrain are allowed to allocate per loop once they're warmed up. Their own code
+     * doesn't allocate anymore, the only thing left is the WheelSpeeds that WPILib's DifferentialDrive.arcadeDrive
+     * makes (32 bytes, when the JIT doesn't get rid of it). Only raise this on purpose.
+     */
+    static final double BYTES_PER_LOOP_BUDGET = 64;
+
+    private static final int WARMUP_LOOPS = 200;
+    private static final int MEASURED_LOOPS = 1000;
+    private static final double LOOP_PERIOD_SECONDS = 0.02;
+    // How far the arm target moves around its circle each loop, in radians
+    private static final double ARM_STEP_RADIANS = 0.02;
+    // More buttons than the drivetrain reads, so DriverStation doesn't build an "unplugged" warning every loop
+    private static final int JOYSTICK_BUTTON_COUNT = 12;
+
+    private ArmSubsystem arm;
+    private DriveTrainSubsystem driveTrain;
+    private double armAngle;
+
+    @Test
+    void armAndDriveTrainStayUnderAllocationBudget() {
+        assumeTrue(AllocationCounter.isSupported(), "This JVM can't count allocations");
+        assertTrue(HAL.initialize(500, 0), "Failed to initialize the HAL");
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(true);
+        new JoystickSim(OperatorConstants.RIGHT_JOYSTICK_PORT).setButtonCount(JOYSTICK_BUTTON_COUNT);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+
+        this.driveTrain = new DriveTrainSubsystem(new FlightJoystick(new CommandJoystick(OperatorConstants.RIGHT_JOYSTICK_PORT)));
+        this.arm = new ArmSubsystem();
+        this.driveTrain.resetSimulation(new Pose2d());
+        this.arm.setPIDControlState(true);
+
+        // Made once up here, so the lambda itself isn't counted as loop garbage
+        Runnable loop = this::runLoop;
+        try {
+            for (int i = 0; i < WARMUP_LOOPS; i++) {
+                stepSimulation();
+                loop.run();
+            }
+
+            long totalBytes = 0;
+            for (int i = 0; i < MEASURED_LOOPS; i++) {
+                stepSimulation();
+                totalBytes += AllocationCounter.measure(loop);
+            }
+            double bytesPerLoop = (double) totalBytes / MEASURED_LOOPS;
+            assertTrue(bytesPerLoop <= BYTES_PER_LOOP_BUDGET,
+                    String.format("Arm and drivetrain allocated %.0f bytes per loop, budget is %.0f", bytesPerLoop, BYTES_PER_LOOP_BUDGET));
+        } finally {
+            this.arm.setPIDControlState(false);
+            this.driveTrain.stopMotors();
+            CommandScheduler.getInstance().unregisterSubsystem(this.arm, this.driveTrain);
+            DriverStationSim.setEnabled(false);
+            DriverStationSim.notifyNewData();
+            SimHooks.resumeTiming();
+        }
+    }
+
+    /**
+     * One loop of subsystem code, in the same order as the scheduler: periodic first, then what a command would do.
+     * Sweeps the arm around a circle in front of the robot while driving in an arc, so IK, the arm PID and the
+     * drivetrain all do real work every loop.
+     */
+    private void runLoop() {
+        this.arm.periodic();
+        this.driveTrain.periodic();
+
+        this.armAngle += ARM_STEP_RADIANS;
+        this.arm.setTargetCoordinates(30 + 8 * Math.cos(this.armAngle), ArmConstants.ORIGIN_HEIGHT + 8 * Math.sin(this.armAngle), 0);
+        this.driveTrain.tankDrive(0.5, 0.2);
+    }
+
+    private void stepSimulation() {
+        SimHooks.stepTiming(LOOP_PERIOD_SECONDS);
+        DriverStation.refreshData();
+        this.driveTrain.simulationPeriodic();
+    }
+}
@@ -0,0 +1,97 @@
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants.ArmConstants;
+
+/**
+ * Checks that {@link ArmKinematicsSolver} gives the same answers as the old {@link InverseKinematicsUtil} and
+ * {@link ForwardKinematicsUtil}, and that solving doesn't allocate.
+ */
+class ArmKinematicsSolverTest {
+    private static final double ANGLE_TOLERANCE_DEG = 1e-6;
+    private static final double COORDINATE_TOLERANCE_INCHES = 1e-6;
+    private static final double GRID_STEP_INCHES = 4;
+
+    private final ArmKinematicsSolver solver = new ArmKinematicsSolver();
+
+    @Test
+    void inverseMatchesInverseKinematicsUtil() {
+        double reach = ArmConstants.LIMB1_LENGTH + ArmConstants.LIMB2_LENGTH;
+        ArmJointState out = new ArmJointState();
+        int solved = 0;
+        for (double x = -reach; x <= reach; x += GRID_STEP_INCHES) {
+            for (double y = ArmConstants.ORIGIN_HEIGHT - reach; y <= ArmConstants.ORIGIN_HEIGHT + reach; y += GRID_STEP_INCHES) {
+                for (double z = -reach; z <= reach; z += GRID_STEP_INCHES) {
+                    for (boolean flipped : new boolean[]{false, true}) {
+                        double[] expected = InverseKinematicsUtil.getAnglesFromCoordinates(x, y, z, flipped);
+                        ArmKinematicsSolver.Status status = this.solver.solveInverse(x, y, z, flipped, out);
+                        String target = "(" + x + ", " + y + ", " + z + ", flipped=" + flipped + ")";
+
+                        boolean expectedSolved = !Double.isNaN(expected[0]);
+                        assertEquals(expectedSolved, status.isOk(), "Reachability differs for " + target + ": " + status);
+                        if (!expectedSolved) {
+                            continue;
+                        }
+                        assertEquals(expected[0], out.getPivot1Deg(), ANGLE_TOLERANCE_DEG, "Pivot 1 for " + target);
+                        assertEquals(expected[1], out.getPivot2Deg(), ANGLE_TOLERANCE_DEG, "Pivot 2 for " + target);
+                        assertEquals(expected[2], out.getTurretDeg(), ANGLE_TOLERANCE_DEG, "Turret for " + target);
+                        solved++;
+                    }
+                }
+            }
+        }
+        // Make sure the grid actually exercised the solve and not just the early returns
+        assertTrue(solved > 100, "Only " + solved + " targets were reachable");
+    }
+
+    @Test
+    void forwardMatchesForwardKinematicsUtil() {
+        double[] out = new double[3];
+        for (double pivot1 = 0; pivot1 < 360; pivot1 += 15) {
+            for (double pivot2 = 0; pivot2 < 360; pivot2 += 15) {
+                for (double turret = -180; turret <= 180; turret += 30) {
+                    double[] expected = ForwardKinematicsUtil.getCoordinatesFromAngles(pivot1, pivot2, turret);
+                    this.solver.solveForward(Math.toRadians(pivot1), Math.toRadians(pivot2), Math.toRadians(turret), out);
+                    String angles = "(" + pivot1 + ", " + pivot2 + ", " + turret + ")";
+                    assertEquals(expected[0], out[0], COORDINATE_TOLERANCE_INCHES, "X for " + angles);
+                    assertEquals(expected[1], out[1], COORDINATE_TOLERANCE_INCHES, "Y for " + angles);
+                    assertEquals(expected[2], out[2], COORDINATE_TOLERANCE_INCHES, "Z for " + angles);
+                }
+            }
+        }
+    }
+
+    @Test
+    void solvingDoesNotAllocate() {
+        assumeTrue(AllocationCounter.isSupported(), "This JVM can't count allocations");
+
+        ArmJointState joints = new ArmJointState();
+        double[] coordinates = new double[3];
+        // Warm up first so class loading and JIT compilation aren't counted
+        for (int i = 0; i < 20_000; i++) {
+            this.solveOnce(i, joints, coordinates);
+        }
+
+        long start = AllocationCounter.currentThreadBytes();
+        for (int i = 0; i < 10_000; i++) {
+            this.solveOnce(i, joints, coordinates);
+        }
+        assertEquals(0, AllocationCounter.since(start), "Bytes allocated by 10000 solves");
+    }
+
+    private void solveOnce(int i, ArmJointState joints, double[] coordinates) {
+        // Walk around a circle in front of the robot, alternating flipped
+        double angle = i * 0.01;
+        double x = 30 + 10 * Math.cos(angle);
+        double y = ArmConstants.ORIGIN_HEIGHT + 10 * Math.sin(angle);
+        double z = 5 * Math.sin(angle * 3);
+        if (this.solver.solveInverse(x, y, z, (i & 1) == 0, joints).isOk()) {
+            this.solver.solveForward(joints, coordinates);
+        }
+    }
+}